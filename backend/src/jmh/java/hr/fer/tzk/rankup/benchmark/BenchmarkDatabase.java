@@ -0,0 +1,65 @@
+package hr.fer.tzk.rankup.benchmark;
+
+import hr.fer.tzk.rankup.RankUpApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Starts the application against an in-memory H2 database and fills it with one synthetic section.
+ *
+ * <p>
+ * Semesters alternate between Winter and Summer, starting with {@code 15/16 ZS}. Every member has a row for
+ * every semester with deterministic pseudo-random points, and total points are the sum of semester points.
+ * Rows are generated by the database ({@code SYSTEM_RANGE}, whose column is the upper-case {@code X}),
+ * so even 100k members are seeded in seconds.
+ * </p>
+ */
+final class BenchmarkDatabase {
+
+    static final long SECTION_ID = 1L;
+
+    private BenchmarkDatabase() {
+    }
+
+    static ConfigurableApplicationContext start(int members, int semesters) {
+        // Passed as arguments, so they take precedence over the active profile of application.yml.
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(RankUpApplication.class).run(
+                "--spring.profiles.active=benchmark",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.sql.init.mode=never",
+                "--server.port=0",
+                "--rankup.snapshots.cron=-",
+                "--logging.level.root=WARN");
+
+        seed(context.getBean(JdbcTemplate.class), members, semesters);
+        return context;
+    }
+
+    private static void seed(JdbcTemplate jdbc, int members, int semesters) {
+        jdbc.update("INSERT INTO mysection (idsection, namesection, isopen) VALUES (?, 'Benchmark', TRUE)", SECTION_ID);
+        jdbc.update("INSERT INTO myrank (namerank, pointsmodifier, idsection) VALUES ('Pijun', 0, ?)", SECTION_ID);
+
+        for (int i = 0; i < semesters; i++) {
+            int year = 2015 + i / 2;
+            boolean winter = i % 2 == 0;
+            String name = String.format("%02d/%02d %s", year % 100, (year + 1) % 100, winter ? "ZS" : "LJS");
+            String dateFrom = winter ? year + "-10-01" : (year + 1) + "-02-20";
+            String dateTo = winter ? (year + 1) + "-02-01" : (year + 1) + "-07-01";
+            jdbc.update("INSERT INTO semester (idsemester, namesemester, datefromsemester, datetosemester) VALUES (?, ?, CAST(? AS DATE), CAST(? AS DATE))",
+                    i + 1, name, dateFrom, dateTo);
+        }
+
+        jdbc.update("INSERT INTO mymember (idmember, firstname, lastname, jmbag, isverified) " +
+                "SELECT \"X\", 'First' || \"X\", 'Last' || \"X\", LPAD(CAST(\"X\" AS VARCHAR), 10, '0'), FALSE FROM SYSTEM_RANGE(1, ?)", members);
+        jdbc.update("INSERT INTO sectionsemester (threshold, points, peenrolled, idsemester, idsection, idmember) " +
+                "SELECT 13, MOD(m.\"X\" * 7919 + s.\"X\" * 104729, 41), FALSE, s.\"X\", ?, m.\"X\" " +
+                "FROM SYSTEM_RANGE(1, ?) m CROSS JOIN SYSTEM_RANGE(1, ?) s", SECTION_ID, members, semesters);
+        jdbc.update("INSERT INTO sectionmember (isactive, pointsall, idmember, idsection, idrank) " +
+                "SELECT TRUE, SUM(points), idmember, idsection, 1 FROM sectionsemester GROUP BY idmember, idsection");
+    }
+}
@@ -0,0 +1,164 @@
+package hr.fer.tzk.rankup.benchmark;
+
+import hr.fer.tzk.rankup.config.PointsTriggerInitializer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting and deleting participations with one statement each, with the old {@code FOR EACH ROW} participation
+ * trigger and with the statement-level triggers of {@code db/participation-points-trigger.sql}.
+ *
+ * <p>
+ * Triggers need PostgreSQL, so this benchmark runs against the database given by the {@code RANKUP_BENCHMARK_DB_URL},
+ * {@code RANKUP_BENCHMARK_DB_USER} and {@code RANKUP_BENCHMARK_DB_PASSWORD} environment variables. It works in its own
+ * {@code trigger_benchmark} schema, which is dropped and recreated from {@code schema.sql} for every trial. Run it with:
+ * </p>
+ *
+ * <pre>
+ * RANKUP_BENCHMARK_DB_URL=jdbc:postgresql://localhost:5432/rankupdb mvn -Pbenchmark verify -Djmh.args=ParticipationTriggerBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParticipationTriggerBenchmark {
+
+    private static final String SCHEMA = "trigger_benchmark";
+
+    // handleParticipationChanges as it was in schema.sql, limited to inserts and deletes.
+    private static final String ROW_TRIGGER = """
+            CREATE OR REPLACE FUNCTION handleParticipationChanges()
+            RETURNS TRIGGER AS $$
+            DECLARE
+                default_points INT;
+                event_date DATE;
+                semester_id BIGINT;
+                section_id BIGINT;
+                participation Participation;
+                direction INT;
+            BEGIN
+                IF (TG_OP = 'DELETE') THEN
+                    participation = OLD;
+                    direction = -1;
+                ELSE
+                    participation = NEW;
+                    direction = 1;
+                END IF;
+
+                SELECT defaultPoints INTO default_points
+                FROM EventType
+                WHERE idEventType = (SELECT idEventType FROM MyEvent WHERE idEvent = participation.idEvent);
+
+                SELECT dateEvent, idSection INTO event_date, section_id
+                FROM MyEvent
+                WHERE idEvent = participation.idEvent;
+
+                SELECT idSemester INTO semester_id
+                FROM Semester
+                WHERE event_date BETWEEN dateFromSemester AND dateToSemester;
+
+                INSERT INTO SectionSemester (threshold, points, idSemester, idSection, idMember)
+                VALUES (0, direction * default_points, semester_id, section_id, participation.idMember)
+                ON CONFLICT (idMember, idSemester, idSection) DO UPDATE
+                SET points = SectionSemester.points + EXCLUDED.points;
+
+                UPDATE SectionMember
+                SET pointsAll = pointsAll + direction * default_points
+                WHERE idMember = participation.idMember AND idSection = section_id;
+
+                RETURN NULL;
+            END;
+            $$ LANGUAGE plpgsql
+            /
+            CREATE TRIGGER participationChangesTrigger
+            AFTER INSERT OR DELETE ON Participation
+            FOR EACH ROW
+            EXECUTE FUNCTION handleParticipationChanges()
+            /
+            """;
+
+    @Param({"row", "statement"})
+    private String trigger;
+
+    @Param({"1", "50", "500"})
+    private int participations;
+
+    private Connection connection;
+    private Statement statement;
+
+    @Setup(Level.Trial)
+    public void createSchema() throws SQLException, IOException {
+        String url = System.getenv("RANKUP_BENCHMARK_DB_URL");
+        if (url == null) {
+            throw new IllegalStateException("Set RANKUP_BENCHMARK_DB_URL to a PostgreSQL database");
+        }
+        connection = DriverManager.getConnection(url, System.getenv("RANKUP_BENCHMARK_DB_USER"), System.getenv("RANKUP_BENCHMARK_DB_PASSWORD"));
+        statement = connection.createStatement();
+        statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        statement.execute("CREATE SCHEMA " + SCHEMA);
+        statement.execute("SET search_path TO " + SCHEMA);
+
+        // Sent as one string, the driver splits it and keeps the $$ function bodies intact.
+        statement.execute(new ClassPathResource("schema.sql").getContentAsString(StandardCharsets.UTF_8));
+        if (trigger.equals("row")) {
+            runScript(new ByteArrayResource(ROW_TRIGGER.getBytes(StandardCharsets.UTF_8)));
+        } else {
+            runScript(PointsTriggerInitializer.installScript());
+        }
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void dropSchema() throws SQLException {
+        statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        connection.close();
+    }
+
+    /**
+     * Adds the participants to the event and removes them again, so points are back where they started.
+     */
+    @Benchmark
+    public int insertAndDelete() throws SQLException {
+        int inserted = statement.executeUpdate("INSERT INTO participation (addpoints, idmember, idevent) " +
+                "SELECT 0, idmember, 1 FROM mymember WHERE idmember <= " + participations);
+        int deleted = statement.executeUpdate("DELETE FROM participation WHERE idevent = 1");
+        return inserted + deleted;
+    }
+
+    private void runScript(Resource script) {
+        ScriptUtils.executeSqlScript(connection, new EncodedResource(script), false, false,
+                ScriptUtils.DEFAULT_COMMENT_PREFIX, "/", ScriptUtils.DEFAULT_BLOCK_COMMENT_START_DELIMITER,
+                ScriptUtils.DEFAULT_BLOCK_COMMENT_END_DELIMITER);
+    }
+
+    private void seed() throws SQLException {
+        // Default ranks of the section are created by a trigger of schema.sql.
+        statement.execute("INSERT INTO mysection (idsection, namesection, isopen) VALUES (1, 'Benchmark', TRUE)");
+        statement.execute("INSERT INTO semester (idsemester, namesemester, datefromsemester, datetosemester) " +
+                "VALUES (1, '23/24 ZS', DATE '2023-10-01', DATE '2024-02-01')");
+        statement.execute("INSERT INTO eventtype (ideventtype, nameeventtype, defaultpoints) VALUES (1, 'Trening', 1)");
+        statement.execute("INSERT INTO myevent (idevent, nameevent, dateevent, idsection, ideventtype) " +
+                "VALUES (1, 'Trening 1', DATE '2023-11-11', 1, 1)");
+        statement.execute("INSERT INTO mymember (idmember, firstname, lastname, jmbag, isverified) " +
+                "SELECT i, 'First' || i, 'Last' || i, LPAD(i::TEXT, 10, '0'), FALSE FROM generate_series(1, " + participations + ") i");
+        statement.execute("INSERT INTO sectionmember (isactive, pointsall, idmember, idsection, idrank) " +
+                "SELECT TRUE, 0, idmember, 1, (SELECT idrank FROM myrank WHERE namerank = 'Pijun' AND idsection = 1) FROM mymember");
+        statement.execute("INSERT INTO sectionsemester (threshold, points, idsemester, idsection, idmember) " +
+                "SELECT 12, 0, 1, 1, idmember FROM mymember");
+    }
+}
@@ -0,0 +1,68 @@
+package hr.fer.tzk.rankup.benchmark;
+
+import hr.fer.tzk.rankup.security.Argon2idHasher;
+import hr.fer.tzk.rankup.security.BCryptHasher;
+import hr.fer.tzk.rankup.security.PasswordHasher;
+import hr.fer.tzk.rankup.security.Sha256Hasher;
+import hr.fer.tzk.rankup.security.Sha512Hasher;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checking a password, as on every login, with each hasher at its default parameters and 1, 4 and 16 threads.
+ *
+ * <p>
+ * Throughput with as many threads as {@code rankup.hashing.threads} is the number of logins per second the server
+ * can handle; average time shows how much a login slows down when threads compete for cores and memory bandwidth.
+ * Argon2id also takes 64 MB of native memory per thread while hashing.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class PasswordHasherBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"argon2id", "bcrypt", "sha256", "sha512"})
+    private String algorithm;
+
+    private PasswordHasher hasher;
+    private String salt;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void createHash() {
+        hasher = switch (algorithm) {
+            case "argon2id" -> new Argon2idHasher();
+            case "bcrypt" -> new BCryptHasher();
+            case "sha256" -> new Sha256Hasher();
+            case "sha512" -> new Sha512Hasher();
+            default -> throw new IllegalArgumentException(algorithm);
+        };
+        salt = hasher.generateSalt();
+        hash = hasher.hashPassword(PASSWORD, salt);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean checkPassword1Thread() {
+        return hasher.checkPassword(PASSWORD, salt, hash);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean checkPassword4Threads() {
+        return hasher.checkPassword(PASSWORD, salt, hash);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean checkPassword16Threads() {
+        return hasher.checkPassword(PASSWORD, salt, hash);
+    }
+}
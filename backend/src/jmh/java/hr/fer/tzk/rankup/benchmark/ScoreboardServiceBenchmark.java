@@ -0,0 +1,75 @@
+package hr.fer.tzk.rankup.benchmark;
+
+import hr.fer.tzk.rankup.dto.ScoreboardDto;
+import hr.fer.tzk.rankup.service.ScoreboardIndexService;
+import hr.fer.tzk.rankup.service.ScoreboardService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end scoreboard benchmarks against an embedded database.
+ *
+ * <p>
+ * With {@code cold=true} the ranking index is dropped before every call, so the numbers include the
+ * database query, mapping and building the ranking. With {@code cold=false} they measure serving a
+ * loaded ranking.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ScoreboardServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int members;
+
+    @Param({"5", "10"})
+    private int semesters;
+
+    @Param({"true", "false"})
+    private boolean cold;
+
+    private ConfigurableApplicationContext context;
+    private ScoreboardService scoreboardService;
+    private ScoreboardIndexService scoreboardIndexService;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkDatabase.start(members, semesters);
+        scoreboardService = context.getBean(ScoreboardService.class);
+        scoreboardIndexService = context.getBean(ScoreboardIndexService.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void dropIndex() {
+        if (cold) {
+            scoreboardIndexService.invalidateAll();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ScoreboardDto> pointsTotal() {
+        return scoreboardService.getPointsTotal(BenchmarkDatabase.SECTION_ID);
+    }
+
+    @Benchmark
+    public List<ScoreboardDto> pointsSemester() {
+        return scoreboardService.getPointsSemester(BenchmarkDatabase.SECTION_ID);
+    }
+
+    @Benchmark
+    public List<ScoreboardDto> pointsYear() {
+        return scoreboardService.getPointsYear(BenchmarkDatabase.SECTION_ID);
+    }
+}
@@ -0,0 +1,78 @@
+package hr.fer.tzk.rankup.benchmark;
+
+import hr.fer.tzk.rankup.dto.ScoreboardDto;
+import hr.fer.tzk.rankup.service.SectionRanking;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory part of the scoreboard: building a ranking from loaded rows and reading it, without a database.
+ * {@code sortRows} is the plain list sort the ranking replaces, kept as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SectionRankingBenchmark {
+
+    private static final Comparator<ScoreboardDto> ORDER = Comparator.comparingInt(ScoreboardDto::getPoints).reversed()
+            .thenComparing(ScoreboardDto::getMemberId);
+
+    @Param({"1000", "10000", "100000"})
+    private int members;
+
+    private List<ScoreboardDto> rows;
+    private SectionRanking ranking;
+    private Random random;
+    private int sign = 1;
+
+    @Setup(Level.Trial)
+    public void generateRows() {
+        random = new Random(42);
+        rows = new ArrayList<>(members);
+        for (long id = 1; id <= members; id++) {
+            rows.add(new ScoreboardDto(id, "First" + id, "Last" + id, random.nextInt(400)));
+        }
+        ranking = buildRanking();
+    }
+
+    @Benchmark
+    public SectionRanking buildRanking() {
+        SectionRanking built = new SectionRanking();
+        for (ScoreboardDto row : rows) {
+            built.put(row.getMemberId(), row.getFirstName(), row.getLastName(), row.getPoints());
+        }
+        return built;
+    }
+
+    @Benchmark
+    public List<ScoreboardDto> sortRows() {
+        List<ScoreboardDto> sorted = new ArrayList<>(rows);
+        sorted.sort(ORDER);
+        return sorted;
+    }
+
+    @Benchmark
+    public List<ScoreboardDto> fullList() {
+        return ranking.toList();
+    }
+
+    @Benchmark
+    public List<ScoreboardDto> firstPage() {
+        return ranking.slice(0, 50);
+    }
+
+    @Benchmark
+    public boolean addPoints() {
+        // Alternating sign keeps the distribution of points stable over the run.
+        sign = -sign;
+        return ranking.addPoints(1L + random.nextInt(members), sign);
+    }
+}
@@ -2,20 +2,47 @@ package hr.fer.tzk.rankup.config;
 
 import hr.fer.tzk.rankup.security.Argon2idHasher;
 import hr.fer.tzk.rankup.security.BCryptHasher;
+import hr.fer.tzk.rankup.security.DelegatingPasswordHasher;
+import hr.fer.tzk.rankup.security.HasherCalibrator;
 import hr.fer.tzk.rankup.security.PasswordHasher;
+import hr.fer.tzk.rankup.security.Sha256Hasher;
+import hr.fer.tzk.rankup.security.Sha512Hasher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.List;
 
 @Configuration
+@EnableScheduling
 public class AppConfig {
 
+    /**
+     * Argon2id hasher for new passwords. The parameters are fixed in configuration, since stored hashes made with
+     * other parameters are replaced on the next login; {@link HasherCalibrator} prints values for the server.
+     */
+    @Bean
+    public PasswordHasher argon2idHasher(@Value("${rankup.hashing.argon2.memory-cost:65536}") int memoryCost,
+                                         @Value("${rankup.hashing.argon2.iterations:2}") int iterations,
+                                         @Value("${rankup.hashing.argon2.parallelism:1}") int parallelism) {
+        return new Argon2idHasher(memoryCost, iterations, parallelism);
+    }
+
     @Bean
-    public PasswordHasher argon2idHasher() {
-        return new Argon2idHasher();
+    public PasswordHasher bcryptHasher(@Value("${rankup.hashing.bcrypt.cost:10}") int logRounds) {
+        return new BCryptHasher(logRounds);
     }
 
+    /**
+     * Hasher used for logins and registrations. New hashes are made with {@code argon2idHasher}; stored hashes are
+     * checked by the algorithm of their prefix, with the parameters encoded in them.
+     */
     @Bean
-    public PasswordHasher bcryptHasher() {
-        return new BCryptHasher();
+    public PasswordHasher passwordHasher(@Qualifier("argon2idHasher") PasswordHasher argon2idHasher,
+                                         @Qualifier("bcryptHasher") PasswordHasher bcryptHasher) {
+        return new DelegatingPasswordHasher(argon2idHasher,
+                List.of(bcryptHasher, new Sha256Hasher(), new Sha512Hasher()));
     }
 }
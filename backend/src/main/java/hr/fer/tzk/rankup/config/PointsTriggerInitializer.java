@@ -0,0 +1,79 @@
+package hr.fer.tzk.rankup.config;
+
+import hr.fer.tzk.rankup.model.SectionSemester;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Installs the statement-level participation triggers of {@code db/participation-points-trigger.sql} when
+ * {@code rankup.points.trigger-enabled} is {@code true}, and removes them when it is {@code false}, so points are
+ * never counted by both the triggers and the application. Both scripts also drop the old row trigger
+ * {@code participationChangesTrigger}, which databases not created from {@code schema.sql} still have.
+ *
+ * <p>
+ * Runs once the schema exists and before the web server accepts requests. The triggers need PostgreSQL; on other
+ * databases the property must stay {@code false}.
+ * </p>
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class PointsTriggerInitializer implements InitializingBean {
+
+    private static final String INSTALL_SCRIPT = "db/participation-points-trigger.sql";
+    private static final String DROP_SCRIPT = "db/drop-participation-points-trigger.sql";
+    private static final String SEPARATOR = "/";
+    private static final String THRESHOLD_PLACEHOLDER = "${defaultThreshold}";
+
+    private final DataSource dataSource;
+    private final boolean triggerEnabled;
+
+    @Autowired
+    public PointsTriggerInitializer(DataSource dataSource, @Value("${rankup.points.trigger-enabled:false}") boolean triggerEnabled) {
+        this.dataSource = dataSource;
+        this.triggerEnabled = triggerEnabled;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        String database = new JdbcTemplate(dataSource).execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            if (triggerEnabled) {
+                throw new IllegalStateException("rankup.points.trigger-enabled needs PostgreSQL, found " + database);
+            }
+            return;
+        }
+
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(triggerEnabled ? installScript() : new ClassPathResource(DROP_SCRIPT));
+        populator.setSeparator(SEPARATOR);
+        populator.execute(dataSource);
+    }
+
+    /**
+     * Returns the install script with the threshold of new section semesters filled in, so the triggers create
+     * rows with the same threshold as the application.
+     */
+    public static Resource installScript() {
+        try {
+            String script = new ClassPathResource(INSTALL_SCRIPT).getContentAsString(StandardCharsets.UTF_8)
+                    .replace(THRESHOLD_PLACEHOLDER, String.valueOf(SectionSemester.DEFAULT_THRESHOLD));
+            return new ByteArrayResource(script.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
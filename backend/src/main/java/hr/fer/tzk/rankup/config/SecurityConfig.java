@@ -54,6 +54,8 @@ public class SecurityConfig {
         config.addAllowedOrigin("https://chess-rank-up.vercel.app"); // or use allowedOriginPattern("*") for dev
         config.addAllowedHeader("*");
         config.addAllowedMethod("*");
+        config.addExposedHeader("X-Total-Count");
+        config.addExposedHeader("ETag");
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
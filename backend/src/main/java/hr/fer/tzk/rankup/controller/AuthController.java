@@ -10,16 +10,21 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.repository.query.Param;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.AbstractMap;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
+    // Seconds after which a client should retry when password hashing is saturated.
+    private static final String RETRY_AFTER_SECONDS = "2";
+
     private final AuthService authService;
     private final VerificationService verificationService;
 
@@ -31,14 +36,24 @@ public class AuthController {
 
     @PostMapping("/login")
     public ResponseEntity<UserDto> login(@Valid @RequestBody LoginForm login) {
-        AbstractMap.SimpleEntry<HttpStatus, UserDto> response = authService.login(login);
+        AbstractMap.SimpleEntry<HttpStatus, UserDto> response;
+        try {
+            response = authService.login(login);
+        } catch (RejectedExecutionException e) {
+            return serviceUnavailable();
+        }
         return ResponseEntity.status(response.getKey()).body(response.getValue());
     }
 
     @PostMapping("/register")
     public ResponseEntity<String> register(@Valid @RequestBody RegisterForm form) {
         System.out.println("Pokušaj registracije");
-        AbstractMap.SimpleEntry<HttpStatus, String> response = authService.register(form);
+        AbstractMap.SimpleEntry<HttpStatus, String> response;
+        try {
+            response = authService.register(form);
+        } catch (RejectedExecutionException e) {
+            return serviceUnavailable();
+        }
         return ResponseEntity.status(response.getKey()).body(response.getValue());
     }
 
@@ -58,4 +73,10 @@ public class AuthController {
         UserDto dto = authService.me(token);
         return ResponseEntity.ok(dto);
     }
+
+    private static <T> ResponseEntity<T> serviceUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                .build();
+    }
 }
@@ -6,11 +6,14 @@ import hr.fer.tzk.rankup.form.EventForm;
 import hr.fer.tzk.rankup.mapper.EventMapper;
 import hr.fer.tzk.rankup.model.Event;
 import hr.fer.tzk.rankup.service.EventService;
+import hr.fer.tzk.rankup.service.SectionVersionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -22,16 +25,23 @@ import java.util.Optional;
 @RequestMapping("/sections/{idSection}/event")
 public class EventController {
     private final EventService eventService;
+    private final SectionVersionService sectionVersionService;
 
     @Autowired
-    public EventController(EventService eventService) {
+    public EventController(EventService eventService, SectionVersionService sectionVersionService) {
         this.eventService = eventService;
+        this.sectionVersionService = sectionVersionService;
     }
 
     @GetMapping
-    public ResponseEntity<List<EventDto>> findAllEvent(@PathVariable Long idSection) {
+    public ResponseEntity<List<EventDto>> findAllEvent(@PathVariable Long idSection, WebRequest request) {
+        String eTag = sectionVersionService.getETag(idSection);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache().cachePrivate()).build();
+        }
+
         List<EventDto> events = eventService.findAllBySectionId(idSection);
-        return ResponseEntity.status(HttpStatus.OK).body(events);
+        return ResponseEntity.status(HttpStatus.OK).eTag(eTag).cacheControl(CacheControl.noCache().cachePrivate()).body(events);
     }
 
     @GetMapping("/{idEvent}")
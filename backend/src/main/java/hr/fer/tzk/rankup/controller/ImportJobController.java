@@ -0,0 +1,46 @@
+package hr.fer.tzk.rankup.controller;
+
+import hr.fer.tzk.rankup.dto.ImportJobDto;
+import hr.fer.tzk.rankup.mapper.ImportJobMapper;
+import hr.fer.tzk.rankup.service.ImportJob;
+import hr.fer.tzk.rankup.service.ImportJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/jobs")
+public class ImportJobController {
+
+    private final ImportJobService importJobService;
+
+    @Autowired
+    public ImportJobController(ImportJobService importJobService) {
+        this.importJobService = importJobService;
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobDto> getJob(@PathVariable String id) {
+        Optional<ImportJob> job = importJobService.findJob(id);
+        return job.map(value -> ResponseEntity.ok(ImportJobMapper.toDto(value)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Returns {@code 202 Accepted} with the job and its location, used by every upload endpoint.
+     */
+    static ResponseEntity<ImportJobDto> accepted(ImportJob job) {
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/jobs/{id}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(ImportJobMapper.toDto(job));
+    }
+}
@@ -2,23 +2,58 @@ package hr.fer.tzk.rankup.controller;
 
 import hr.fer.tzk.rankup.dto.LeaderboardDto;
 import hr.fer.tzk.rankup.service.LeaderboardService;
-import hr.fer.tzk.rankup.service.ScoreboardService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/sections/leaderboard")
 public class LeaderboardController {
 
+    private static final int MAX_LIMIT = 1000;
+
     private final LeaderboardService leaderboardService;
 
     public LeaderboardController(LeaderboardService leaderboardService) {
         this.leaderboardService = leaderboardService;
     }
 
-//    @GetMapping
-//    public ResponseEntity<LeaderboardDto> getLeaderboard(@RequestParam )
+    /**
+     * Returns the faculty-wide leaderboard. Optional {@code weights} are given as {@code idSection:weight}
+     * pairs, e.g. {@code ?weights=1:2,3:0.5}.
+     */
+    @GetMapping
+    public ResponseEntity<List<LeaderboardDto>> getLeaderboard(@RequestParam(defaultValue = "100") int limit,
+                                                               @RequestParam(required = false) List<String> weights) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Map<Long, Double> sectionWeights = new HashMap<>();
+        if (weights != null) {
+            for (String weight : weights) {
+                String[] parts = weight.split(":");
+                if (parts.length != 2) {
+                    return ResponseEntity.badRequest().build();
+                }
+                try {
+                    double value = Double.parseDouble(parts[1]);
+                    if (!(value >= 0) || Double.isInfinite(value)) {
+                        return ResponseEntity.badRequest().build();
+                    }
+                    sectionWeights.put(Long.parseLong(parts[0].strip()), value);
+                } catch (NumberFormatException e) {
+                    return ResponseEntity.badRequest().build();
+                }
+            }
+        }
+
+        return ResponseEntity.ok(leaderboardService.getLeaderboard(limit, sectionWeights));
+    }
 }
@@ -2,6 +2,8 @@ package hr.fer.tzk.rankup.controller;
 
 import hr.fer.tzk.rankup.dto.BasicMemberDto;
 import hr.fer.tzk.rankup.dto.DetailedMemberDto;
+import hr.fer.tzk.rankup.dto.ImportJobDto;
+import hr.fer.tzk.rankup.dto.MemberLineDto;
 import hr.fer.tzk.rankup.dto.SectionDto;
 import hr.fer.tzk.rankup.dto.SectionMemberDto;
 import hr.fer.tzk.rankup.form.BasicMemberForm;
@@ -10,9 +12,12 @@ import hr.fer.tzk.rankup.mapper.SectionMapper;
 import hr.fer.tzk.rankup.model.Member;
 import hr.fer.tzk.rankup.model.Section;
 import hr.fer.tzk.rankup.model.SectionMember;
+import hr.fer.tzk.rankup.service.ImportJob;
+import hr.fer.tzk.rankup.service.ImportJobService;
+import hr.fer.tzk.rankup.service.MemberOnboardingService;
 import hr.fer.tzk.rankup.service.MemberService;
 import hr.fer.tzk.rankup.service.SectionMemberService;
-import hr.fer.tzk.rankup.service.SectionSemesterService;
+import hr.fer.tzk.rankup.utils.RosterUtils;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -21,23 +26,28 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/members")
 public class MemberController {
     private final MemberService memberService;
     private final SectionMemberService sectionMemberService;
-    private final SectionSemesterService sectionSemesterService;
+    private final MemberOnboardingService memberOnboardingService;
+    private final ImportJobService importJobService;
 
     @Autowired
-    public MemberController(MemberService memberService, SectionMemberService sectionMemberService, SectionSemesterService sectionSemesterService) {
+    public MemberController(MemberService memberService, SectionMemberService sectionMemberService, MemberOnboardingService memberOnboardingService, ImportJobService importJobService) {
         this.memberService = memberService;
         this.sectionMemberService = sectionMemberService;
-        this.sectionSemesterService =sectionSemesterService;
+        this.memberOnboardingService = memberOnboardingService;
+        this.importJobService = importJobService;
     }
 
 
@@ -95,21 +105,30 @@ public class MemberController {
         }
     }
 
+    /**
+     * Starts a background import of members from a CSV file. Progress is polled on {@code /jobs/{id}}.
+     */
     @PostMapping("/many")
-    public ResponseEntity<List<Member>> createManyFromFile(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<ImportJobDto> createManyFromFile(@RequestParam("file") MultipartFile file) {
         long sectionId = 1;
         String rank = "Pijun";
 
-        List<Member> members;
+        ImportJob job;
         try {
-            members = memberService.createMembersFromFile(file);
-            List<SectionMember> sectionMembers = sectionMemberService.createSectionMembersMultiple(sectionId, members, rank);
-            sectionMembers.forEach(sectionSemesterService::createSectionSemesterForAllSemesters);
+            job = importJobService.submit("members", sectionId + ":" + rank, file, (path, progress) -> {
+                List<MemberLineDto> lines;
+                try (InputStream inputStream = Files.newInputStream(path)) {
+                    lines = RosterUtils.parseMembers(inputStream);
+                }
+                return memberOnboardingService.onboard(sectionId, rank, lines, progress);
+            });
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         }
 
-        return ResponseEntity.ok(members);
+        return ImportJobController.accepted(job);
     }
 
 
@@ -3,40 +3,60 @@ package hr.fer.tzk.rankup.controller;
 import hr.fer.tzk.rankup.dto.ActivityPageDto;
 import hr.fer.tzk.rankup.dto.ProfileGeneralInfoDto;
 import hr.fer.tzk.rankup.service.MemberProfileService;
+import hr.fer.tzk.rankup.service.SectionVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/sections/{idSection}/members/{idMember}/profile")
 public class MemberProfileController {
 
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     private final MemberProfileService profileService;
+    private final SectionVersionService sectionVersionService;
 
     @Autowired
-    public MemberProfileController(MemberProfileService profileService) {
+    public MemberProfileController(MemberProfileService profileService, SectionVersionService sectionVersionService) {
         this.profileService = profileService;
+        this.sectionVersionService = sectionVersionService;
     }
 
     @GetMapping("/activities")
-    public ResponseEntity<ActivityPageDto> getAllActivities(@PathVariable Long idSection, @PathVariable Long idMember) {
+    public ResponseEntity<ActivityPageDto> getAllActivities(@PathVariable Long idSection, @PathVariable Long idMember, WebRequest request) {
+        String eTag = sectionVersionService.getETag(idSection);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CACHE_CONTROL).build();
+        }
+
         ActivityPageDto activities = profileService.getActivityPage(idSection, idMember);
         if (activities == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(activities);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CACHE_CONTROL).body(activities);
     }
 
     @GetMapping("/general")
-    public ResponseEntity<ProfileGeneralInfoDto> getGeneralInfo(@PathVariable Long idSection, @PathVariable Long idMember) {
+    public ResponseEntity<ProfileGeneralInfoDto> getGeneralInfo(@PathVariable Long idSection, @PathVariable Long idMember, WebRequest request) {
+        // Shown semester depends on today's date, so the date is part of the tag.
+        String eTag = sectionVersionService.getETag(idSection, LocalDate.now());
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CACHE_CONTROL).build();
+        }
+
         ProfileGeneralInfoDto info = profileService.getGeneralProfileInfo(idSection, idMember);
         if (info == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(info);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CACHE_CONTROL).body(info);
     }
 
     @GetMapping("/rank-icon")
@@ -0,0 +1,35 @@
+package hr.fer.tzk.rankup.controller;
+
+import hr.fer.tzk.rankup.dto.JwtCacheStatsDto;
+import hr.fer.tzk.rankup.dto.PasswordHashingStatsDto;
+import hr.fer.tzk.rankup.security.JwtUtil;
+import hr.fer.tzk.rankup.service.PasswordHashingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/metrics")
+public class MetricsController {
+
+    private final PasswordHashingService passwordHashingService;
+    private final JwtUtil jwtUtil;
+
+    @Autowired
+    public MetricsController(PasswordHashingService passwordHashingService, JwtUtil jwtUtil) {
+        this.passwordHashingService = passwordHashingService;
+        this.jwtUtil = jwtUtil;
+    }
+
+    @GetMapping("/password-hashing")
+    public ResponseEntity<PasswordHashingStatsDto> getPasswordHashingStats() {
+        return ResponseEntity.ok(passwordHashingService.getStats());
+    }
+
+    @GetMapping("/jwt-cache")
+    public ResponseEntity<JwtCacheStatsDto> getJwtCacheStats() {
+        return ResponseEntity.ok(jwtUtil.getStats());
+    }
+}
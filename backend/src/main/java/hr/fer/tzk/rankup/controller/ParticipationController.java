@@ -3,32 +3,49 @@ package hr.fer.tzk.rankup.controller;
 import hr.fer.tzk.rankup.dto.BasicMemberDto;
 import hr.fer.tzk.rankup.dto.DetailedMemberDto;
 import hr.fer.tzk.rankup.dto.EventDto;
+import hr.fer.tzk.rankup.dto.ImportJobDto;
 import hr.fer.tzk.rankup.dto.ParticipationDto;
+import hr.fer.tzk.rankup.dto.ParticipationImportDto;
+import hr.fer.tzk.rankup.dto.PointsRecalculationDto;
+import hr.fer.tzk.rankup.dto.RosterReportDto;
 import hr.fer.tzk.rankup.form.SingleParticipationForm;
 import hr.fer.tzk.rankup.mapper.EventMapper;
 import hr.fer.tzk.rankup.mapper.MemberMapper;
 import hr.fer.tzk.rankup.mapper.ParticipationMapper;
-import hr.fer.tzk.rankup.model.Member;
 import hr.fer.tzk.rankup.model.Participation;
 import hr.fer.tzk.rankup.model.SectionSemester;
+import hr.fer.tzk.rankup.service.ImportJob;
+import hr.fer.tzk.rankup.service.ImportJobService;
 import hr.fer.tzk.rankup.service.ParticipationService;
+import hr.fer.tzk.rankup.utils.RosterUtils;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/sections/{sectionId}/participations")
 public class ParticipationController {
     private final ParticipationService participationService;
+    private final ImportJobService importJobService;
 
     @Autowired
-    public ParticipationController(ParticipationService participationService) {
+    public ParticipationController(ParticipationService participationService, ImportJobService importJobService) {
         this.participationService = participationService;
+        this.importJobService = importJobService;
     }
 
     @GetMapping
@@ -61,9 +78,32 @@ public class ParticipationController {
 
     @GetMapping("/pass/{threshold}/semester/{semesterId}")
     public ResponseEntity<List<BasicMemberDto>> findAllWhoPassedThreshold(@PathVariable Long sectionId, @PathVariable Long threshold, @PathVariable Long semesterId) {
-        List<Member> members = participationService.findAllWhoPassedThreshold(threshold, sectionId, semesterId);
-        List<BasicMemberDto> dtos = members.stream().map(MemberMapper::toBasicDto).toList();
-        return ResponseEntity.ok(dtos);
+        try {
+            List<BasicMemberDto> dtos = participationService.findAllWhoPassedThreshold(threshold, sectionId, semesterId)
+                    .stream()
+                    .map(MemberMapper::toBasicDto)
+                    .toList();
+            return ResponseEntity.ok(dtos);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Exports members who passed the threshold as a CSV file, streamed while it is read from the database.
+     */
+    @GetMapping("/pass/{threshold}/semester/{semesterId}/csv")
+    public void exportAllWhoPassedThreshold(@PathVariable Long sectionId, @PathVariable Long threshold, @PathVariable Long semesterId, HttpServletResponse response) throws IOException {
+        String filename = "prolaz-" + sectionId + "-" + semesterId + ".csv";
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString());
+        try {
+            participationService.writeWhoPassedThresholdCsv(threshold, sectionId, semesterId, response.getWriter());
+        } catch (NoSuchElementException e) {
+            response.reset();
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+        }
     }
 
 
@@ -76,23 +116,57 @@ public class ParticipationController {
     }
 
 
+    /**
+     * Starts a background import of participations from a roster file. Progress is polled on {@code /jobs/{id}},
+     * whose result holds the created participations together with a per-line report of the file.
+     */
     @PostMapping("/auto/{eventId}")
-    public ResponseEntity<List<ParticipationDto>> createParticipationsFromFile(@PathVariable Long sectionId, @PathVariable Long eventId, @RequestParam("file") MultipartFile file){
-        List<Participation> participations;
+    public ResponseEntity<ImportJobDto> createParticipationsFromFile(@PathVariable Long sectionId, @PathVariable Long eventId, @RequestParam("file") MultipartFile file){
+        ImportJob job;
         try {
-            participations = participationService.createMultipleParticipations(sectionId, eventId, file);
+            job = importJobService.submit("participations", sectionId + ":" + eventId, file, (path, progress) -> {
+                RosterReportDto roster;
+                try (InputStream inputStream = Files.newInputStream(path)) {
+                    roster = RosterUtils.parseRoster(inputStream);
+                }
+                progress.setTotal(roster.getLines().size());
+                List<Participation> participations = participationService.createMultipleParticipations(sectionId, eventId, roster);
+                progress.advance(roster.getLines().size());
+                List<ParticipationDto> participationDtos = participations.stream().map(ParticipationMapper::toDto).toList();
+                return new ParticipationImportDto(participationDtos, roster);
+            });
         } catch (IOException e) {
             return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         }
-        List<ParticipationDto> participationDtos = participations.stream().map(ParticipationMapper::toDto).toList();
-        return ResponseEntity.ok(participationDtos);
+        return ImportJobController.accepted(job);
+    }
 
+    /**
+     * Reports members whose stored points differ from points computed from their participations,
+     * without changing anything. Without {@code semesterId}, every semester is checked.
+     */
+    @GetMapping({"/check-points", "/check-points/{semesterId}"})
+    public ResponseEntity<PointsRecalculationDto> checkPoints(@PathVariable Long sectionId, @PathVariable(required = false) Long semesterId) {
+        return recalculatePoints(sectionId, semesterId, true);
     }
 
-    @GetMapping("/check-points/{semesterId}")
-    public ResponseEntity<String> checkPoints(@PathVariable Long sectionId, @PathVariable Long semesterId) {
-        participationService.getPointsAllMembers(semesterId, sectionId);
-        return null;
+    /**
+     * Corrects stored points that differ from points computed from participations and reports what was corrected.
+     */
+    @PostMapping({"/check-points", "/check-points/{semesterId}"})
+    public ResponseEntity<PointsRecalculationDto> fixPoints(@PathVariable Long sectionId, @PathVariable(required = false) Long semesterId,
+                                                            @RequestParam(defaultValue = "false") boolean dryRun) {
+        return recalculatePoints(sectionId, semesterId, dryRun);
+    }
+
+    private ResponseEntity<PointsRecalculationDto> recalculatePoints(Long sectionId, Long semesterId, boolean dryRun) {
+        try {
+            return ResponseEntity.ok(participationService.recalculatePoints(sectionId, semesterId, dryRun));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
 
@@ -1,40 +1,207 @@
 package hr.fer.tzk.rankup.controller;
 
+import hr.fer.tzk.rankup.dto.RankedScoreboardDto;
 import hr.fer.tzk.rankup.dto.ScoreboardDto;
+import hr.fer.tzk.rankup.dto.ScoreboardPageDto;
+import hr.fer.tzk.rankup.dto.ScoreboardPositionDto;
 import hr.fer.tzk.rankup.service.ScoreboardService;
+import hr.fer.tzk.rankup.service.ScoreboardStreamService;
+import hr.fer.tzk.rankup.service.SectionVersionService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
+/**
+ * Scoreboard views of a section. Every view accepts optional {@code limit} and {@code after=points,memberId}
+ * parameters for keyset pagination, and returns the number of ranked members in the {@code X-Total-Count} header.
+ * Responses carry the section's data version as {@code ETag}, and a matching {@code If-None-Match} is answered
+ * with {@code 304 Not Modified} before any scoreboard is computed.
+ * Total scoreboard rows also carry {@code rankDelta}, the change of position since a daily snapshot.
+ */
 @RestController
 @RequestMapping("/sections/{idSection}/scoreboard")
 public class ScoreboardController {
 
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+    private static final Set<String> VIEWS = Set.of("total", "semester", "year");
+    private static final int MAX_RADIUS = 50;
+
     private final ScoreboardService scoreboardService;
+    private final SectionVersionService sectionVersionService;
+    private final ScoreboardStreamService scoreboardStreamService;
 
-    public ScoreboardController(ScoreboardService scoreboardService) {
+    public ScoreboardController(ScoreboardService scoreboardService, SectionVersionService sectionVersionService, ScoreboardStreamService scoreboardStreamService) {
         this.scoreboardService = scoreboardService;
+        this.sectionVersionService = sectionVersionService;
+        this.scoreboardStreamService = scoreboardStreamService;
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of semester scoreboard changes. Every {@code scoreboard} event
+     * contains the new points and position of each member that changed since the previous event.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSemester(@PathVariable Long idSection) {
+        return scoreboardStreamService.subscribe(idSection);
+    }
+
+    /**
+     * Returns points summed over a window of semesters, either {@code fromSemester} to {@code toSemester}
+     * (both semester IDs, inclusive) or the latest {@code lastN} semesters.
+     */
+    @GetMapping
+    public ResponseEntity<List<RankedScoreboardDto>> getPointsForSemesters(@PathVariable Long idSection,
+                                                                           @RequestParam(required = false) Long fromSemester,
+                                                                           @RequestParam(required = false) Long toSemester,
+                                                                           @RequestParam(required = false) Integer lastN,
+                                                                           WebRequest request) {
+        if (lastN != null) {
+            if (lastN < 1 || fromSemester != null || toSemester != null) {
+                return ResponseEntity.badRequest().build();
+            }
+        } else if (fromSemester == null || toSemester == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String eTag = sectionVersionService.getETag(idSection);
+        if (request.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+
+        List<RankedScoreboardDto> scoreboard = lastN != null
+                ? scoreboardService.getPointsLatestSemesters(idSection, lastN)
+                : scoreboardService.getPointsBetweenSemesters(idSection, fromSemester, toSemester);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CACHE_CONTROL)
+                .body(scoreboard);
     }
 
+    /**
+     * Returns the total scoreboard. Rank deltas are computed against the latest snapshot taken on or before
+     * {@code since}, or before today if it is not given.
+     */
     @GetMapping("/total")
-    public ResponseEntity<List<ScoreboardDto>> getPointsTotal(@PathVariable Long idSection) {
-        List<ScoreboardDto> scoreboard = scoreboardService.getPointsTotal(idSection);
-        return ResponseEntity.ok(scoreboard);
+    public ResponseEntity<List<ScoreboardDto>> getPointsTotal(@PathVariable Long idSection,
+                                                              @RequestParam(required = false) Integer limit,
+                                                              @RequestParam(required = false) List<Long> after,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate since,
+                                                              WebRequest request) {
+        if (!isValidPage(limit, after)) {
+            return ResponseEntity.badRequest().build();
+        }
+        // Default comparison date moves at midnight, so today's date is part of the tag.
+        String eTag = sectionVersionService.getETag(idSection, LocalDate.now());
+        if (request.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+        ScoreboardPageDto scoreboard = scoreboardService.getPointsTotal(idSection, limit, afterPoints(after), afterMemberId(after), since);
+        return toResponse(scoreboard, eTag);
     }
 
     @GetMapping("/semester")
-    public ResponseEntity<List<ScoreboardDto>> getPointsSemester(@PathVariable Long idSection) {
-        List<ScoreboardDto> scoreboard = scoreboardService.getPointsSemester(idSection);
-        return ResponseEntity.ok(scoreboard);
+    public ResponseEntity<List<ScoreboardDto>> getPointsSemester(@PathVariable Long idSection,
+                                                                 @RequestParam(required = false) Integer limit,
+                                                                 @RequestParam(required = false) List<Long> after,
+                                                                 WebRequest request) {
+        if (!isValidPage(limit, after)) {
+            return ResponseEntity.badRequest().build();
+        }
+        String eTag = sectionVersionService.getETag(idSection);
+        if (request.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+        ScoreboardPageDto scoreboard = scoreboardService.getPointsSemester(idSection, limit, afterPoints(after), afterMemberId(after));
+        return toResponse(scoreboard, eTag);
     }
 
     @GetMapping("/year")
-    public ResponseEntity<List<ScoreboardDto>> getPointsYear(@PathVariable Long idSection) {
-        List<ScoreboardDto> scoreboard = scoreboardService.getPointsYear(idSection);
-        return ResponseEntity.ok(scoreboard);
+    public ResponseEntity<List<ScoreboardDto>> getPointsYear(@PathVariable Long idSection,
+                                                             @RequestParam(required = false) Integer limit,
+                                                             @RequestParam(required = false) List<Long> after,
+                                                             WebRequest request) {
+        if (!isValidPage(limit, after)) {
+            return ResponseEntity.badRequest().build();
+        }
+        String eTag = sectionVersionService.getETag(idSection);
+        if (request.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+        ScoreboardPageDto scoreboard = scoreboardService.getPointsYear(idSection, limit, afterPoints(after), afterMemberId(after));
+        return toResponse(scoreboard, eTag);
+    }
+
+    /**
+     * Returns position of the member in the {@code total}, {@code semester} or {@code year} view, with up to
+     * {@code radius} members above and below.
+     */
+    @GetMapping("/position/{idMember}")
+    public ResponseEntity<ScoreboardPositionDto> getPosition(@PathVariable Long idSection,
+                                                             @PathVariable Long idMember,
+                                                             @RequestParam(defaultValue = "total") String view,
+                                                             @RequestParam(defaultValue = "2") int radius,
+                                                             WebRequest request) {
+        if (!VIEWS.contains(view) || radius < 0 || radius > MAX_RADIUS) {
+            return ResponseEntity.badRequest().build();
+        }
+        String eTag = sectionVersionService.getETag(idSection);
+        if (request.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+
+        Optional<ScoreboardPositionDto> position = scoreboardService.getPosition(idSection, idMember, view, radius);
+        if (position.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CACHE_CONTROL)
+                .body(position.get());
+    }
+
+    private static boolean isValidPage(Integer limit, List<Long> after) {
+        if (limit != null && limit < 1) {
+            return false;
+        }
+        return after == null || (after.size() == 2
+                && after.get(0) >= Integer.MIN_VALUE && after.get(0) <= Integer.MAX_VALUE);
+    }
+
+    private static Integer afterPoints(List<Long> after) {
+        return after == null ? null : after.get(0).intValue();
+    }
+
+    private static Long afterMemberId(List<Long> after) {
+        return after == null ? null : after.get(1);
+    }
+
+    private static ResponseEntity<List<ScoreboardDto>> toResponse(ScoreboardPageDto scoreboard, String eTag) {
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CACHE_CONTROL)
+                .header(TOTAL_COUNT_HEADER, String.valueOf(scoreboard.getTotalCount()))
+                .body(scoreboard.getRows());
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(CACHE_CONTROL)
+                .build();
     }
 }
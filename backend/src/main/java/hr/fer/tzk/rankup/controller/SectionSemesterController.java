@@ -1,13 +1,13 @@
 package hr.fer.tzk.rankup.controller;
 
-import hr.fer.tzk.rankup.model.SectionSemester;
+import hr.fer.tzk.rankup.dto.PeEnrollmentImportDto;
 import hr.fer.tzk.rankup.service.SectionSemesterService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.List;
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/sections/{sectionId}/semesters")
@@ -19,9 +19,16 @@ public class SectionSemesterController {
         this.sectionSemesterService = semesterService;
     }
 
+    /**
+     * Marks members listed in the roster file as enrolled in PE, and returns them with a per-line report of the file.
+     */
     @PostMapping("/selection")
-    public ResponseEntity<List<SectionSemester>> enablePeEnrolled(@PathVariable Long sectionId, @RequestParam("semesterId") Long idSemester, @RequestParam("file") MultipartFile file) {
-        return null;
+    public ResponseEntity<PeEnrollmentImportDto> enablePeEnrolled(@PathVariable Long sectionId, @RequestParam("semesterId") Long idSemester, @RequestParam("file") MultipartFile file) {
+        try {
+            return ResponseEntity.ok(sectionSemesterService.updatePeEnrolled(sectionId, idSemester, file));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
 }
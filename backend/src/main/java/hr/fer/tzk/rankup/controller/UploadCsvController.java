@@ -1,6 +1,10 @@
 package hr.fer.tzk.rankup.controller;
 
+import hr.fer.tzk.rankup.dto.ImportJobDto;
+import hr.fer.tzk.rankup.dto.LichessImportDto;
 import hr.fer.tzk.rankup.service.CsvService;
+import hr.fer.tzk.rankup.service.ImportJob;
+import hr.fer.tzk.rankup.service.ImportJobService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -11,30 +15,54 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/upload/csv")
 public class UploadCsvController {
     private final CsvService csvService;
+    private final ImportJobService importJobService;
 
     @Autowired
-    public UploadCsvController(CsvService csvService) {
+    public UploadCsvController(CsvService csvService, ImportJobService importJobService) {
         this.csvService = csvService;
+        this.importJobService = importJobService;
     }
 
+    /**
+     * Starts a background import of a Lichess tournament CSV. Progress is polled on {@code /jobs/{id}}, whose result
+     * reports every player line and the usernames that did not match any member.
+     *
+     * <p>
+     * Participants get the points of the event's type, like every other participation, so {@code defaultPoints}
+     * is ignored. It is still accepted so existing clients keep working.
+     * </p>
+     */
     @PostMapping("/lichess")
-    public ResponseEntity<String> uploadLichessCsv(@RequestParam("file") MultipartFile file,
+    public ResponseEntity<?> uploadLichessCsv(@RequestParam("file") MultipartFile file,
                                             @RequestParam("eventName") String eventName,
-                                            @RequestParam("defaultPoints") int defaultPoints) {
+                                            @RequestParam(value = "defaultPoints", required = false) Integer defaultPoints) {
         if (file.isEmpty()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("File is empty");
         }
 
+        ImportJob job;
         try {
-            csvService.convertLichessCsvToDb(file.getInputStream(), eventName, defaultPoints);
-            return ResponseEntity.ok("CSV file has been uploaded successfully");
+            job = importJobService.submit("lichess", eventName, file, (path, progress) -> {
+                try (InputStream inputStream = Files.newInputStream(path)) {
+                    LichessImportDto result = csvService.convertLichessCsvToDb(inputStream, eventName);
+                    progress.setTotal(result.getLines().size());
+                    progress.advance(result.getLines().size());
+                    return result;
+                }
+            });
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Too many imports in progress");
         }
+        return ImportJobController.accepted(job);
     }
 }
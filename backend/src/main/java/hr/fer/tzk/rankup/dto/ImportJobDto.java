@@ -0,0 +1,22 @@
+package hr.fer.tzk.rankup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDto {
+    private String id;
+    private String type;
+    private String status;
+    private int processed;
+    private int total;
+    private Object result;
+    private String error;
+    private Instant createdAt;
+    private Instant finishedAt;
+}
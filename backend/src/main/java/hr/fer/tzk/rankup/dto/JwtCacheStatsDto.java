@@ -0,0 +1,17 @@
+package hr.fer.tzk.rankup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JwtCacheStatsDto {
+    // Verified tokens kept in memory and the most that are kept.
+    private int size;
+    private int maxSize;
+    // Validations answered from memory and ones that checked the signature.
+    private long hits;
+    private long misses;
+}
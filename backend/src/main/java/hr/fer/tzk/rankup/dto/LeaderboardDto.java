@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class LeaderboardDto {
+    private Long memberId;
     private String firstName;
     private String lastName;
     private Number memberInfo;
@@ -0,0 +1,33 @@
+package hr.fer.tzk.rankup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LichessImportDto {
+    private Long eventId;
+    private List<LichessLineDto> lines;
+
+    public int getAcceptedCount() {
+        return (int) lines.stream().filter(line -> line.getReason() == null).count();
+    }
+
+    public int getRejectedCount() {
+        return lines.size() - getAcceptedCount();
+    }
+
+    /**
+     * Returns usernames that did not match any member, for adding them to member profiles.
+     */
+    public List<String> getUnmatchedUsernames() {
+        return lines.stream()
+                .filter(line -> "unknown username".equals(line.getReason()))
+                .map(LichessLineDto::getUsername)
+                .toList();
+    }
+}
@@ -0,0 +1,18 @@
+package hr.fer.tzk.rankup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LichessLineDto {
+    private int lineNumber;
+    private Integer placement;
+    private String username;
+    private Integer score;
+    private Long memberId;
+    // Null if the line was accepted.
+    private String reason;
+}
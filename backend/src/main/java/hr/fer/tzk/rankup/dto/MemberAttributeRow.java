@@ -0,0 +1,10 @@
+package hr.fer.tzk.rankup.dto;
+
+/**
+ * Projection of a member's attribute value, e.g. Lichess username.
+ */
+public interface MemberAttributeRow {
+    Long getMemberId();
+
+    String getValue();
+}
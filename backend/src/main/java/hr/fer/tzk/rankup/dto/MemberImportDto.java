@@ -0,0 +1,30 @@
+package hr.fer.tzk.rankup.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberImportDto {
+    private Long sectionId;
+    private String rank;
+    private List<MemberLineDto> lines;
+
+    public int getAcceptedCount() {
+        return (int) lines.stream().filter(line -> line.getReason() == null).count();
+    }
+
+    public int getRejectedCount() {
+        return lines.size() - getAcceptedCount();
+    }
+
+    @JsonIgnore
+    public List<MemberLineDto> getAcceptedLines() {
+        return lines.stream().filter(line -> line.getReason() == null).toList();
+    }
+}
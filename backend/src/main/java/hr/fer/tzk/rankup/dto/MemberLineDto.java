@@ -0,0 +1,20 @@
+package hr.fer.tzk.rankup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberLineDto {
+    private int lineNumber;
+    private String firstName;
+    private String lastName;
+    private String jmbag;
+    private String email;
+    // Null until the member is created.
+    private Long memberId;
+    // Null if the line was accepted.
+    private String reason;
+}
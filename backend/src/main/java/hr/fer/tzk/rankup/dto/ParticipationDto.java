@@ -11,4 +11,6 @@ public class ParticipationDto {
     private Long id;
     private DetailedMemberDto memberDto;
     private EventDto eventDto;
+    private Integer placement;
+    private Integer score;
 }
@@ -0,0 +1,15 @@
+package hr.fer.tzk.rankup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParticipationImportDto {
+    private List<ParticipationDto> participations;
+    private RosterReportDto report;
+}
@@ -0,0 +1,18 @@
+package hr.fer.tzk.rankup.dto;
+
+/**
+ * Projection of a section member whose semester points, including the rank's points modifier, reached a threshold.
+ */
+public interface PassedThresholdRow {
+    Long getMemberId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getJmbag();
+
+    String getEmail();
+
+    Integer getPoints();
+}
@@ -0,0 +1,25 @@
+package hr.fer.tzk.rankup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordHashingStatsDto {
+    // Cost parameters of new hashes, e.g. m=65536,t=2,p=1.
+    private String parameters;
+    private int threads;
+    private int active;
+    private int queued;
+    private int queueCapacity;
+    private long completed;
+    private long rejected;
+    private long timedOut;
+    // Time spent hashing, without waiting in the queue.
+    private double averageMillis;
+    private double maxMillis;
+    // Time from submitting to getting the result, including the queue.
+    private double averageWaitMillis;
+}
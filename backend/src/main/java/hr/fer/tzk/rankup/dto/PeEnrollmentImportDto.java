@@ -0,0 +1,16 @@
+package hr.fer.tzk.rankup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeEnrollmentImportDto {
+    // Members marked as enrolled in PE.
+    private List<BasicMemberDto> members;
+    private RosterReportDto report;
+}
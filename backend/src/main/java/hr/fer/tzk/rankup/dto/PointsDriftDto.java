@@ -0,0 +1,18 @@
+package hr.fer.tzk.rankup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointsDriftDto {
+    private Long memberId;
+
+    // Null for total points of the section.
+    private Long semesterId;
+
+    private int stored;
+    private int computed;
+}
@@ -0,0 +1,17 @@
+package hr.fer.tzk.rankup.dto;
+
+/**
+ * Projection of stored points that differ from points computed from participations.
+ * {@code getId()} is the ID of the section member or section semester row.
+ */
+public interface PointsDriftRow {
+    Long getId();
+
+    Long getMemberId();
+
+    Long getSemesterId();
+
+    Integer getStored();
+
+    Integer getComputed();
+}
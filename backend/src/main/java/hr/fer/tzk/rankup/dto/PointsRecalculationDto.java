@@ -0,0 +1,19 @@
+package hr.fer.tzk.rankup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointsRecalculationDto {
+    private Long sectionId;
+
+    // True if drift was only reported and stored points were left as they are.
+    private boolean dryRun;
+
+    private List<PointsDriftDto> drift;
+}
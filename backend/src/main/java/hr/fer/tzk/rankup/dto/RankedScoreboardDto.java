@@ -0,0 +1,16 @@
+package hr.fer.tzk.rankup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RankedScoreboardDto {
+    private Long memberId;
+    private String firstName;
+    private String lastName;
+    private int points;
+    private int position;
+}
@@ -0,0 +1,16 @@
+package hr.fer.tzk.rankup.dto;
+
+/**
+ * Projection of one scoreboard row computed in the database, including its dense rank.
+ */
+public interface RankedScoreboardRow {
+    Long getMemberId();
+
+    String getFirstName();
+
+    String getLastName();
+
+    Integer getPoints();
+
+    Integer getPosition();
+}
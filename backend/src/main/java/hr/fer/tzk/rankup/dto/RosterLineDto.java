@@ -0,0 +1,16 @@
+package hr.fer.tzk.rankup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RosterLineDto {
+    private int lineNumber;
+    private String raw;
+    private String jmbag;
+    // Null if the line was accepted.
+    private String reason;
+}
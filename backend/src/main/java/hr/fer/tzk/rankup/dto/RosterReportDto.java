@@ -0,0 +1,31 @@
+package hr.fer.tzk.rankup.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RosterReportDto {
+    private List<RosterLineDto> lines;
+
+    public int getAcceptedCount() {
+        return (int) lines.stream().filter(line -> line.getReason() == null).count();
+    }
+
+    public int getRejectedCount() {
+        return lines.size() - getAcceptedCount();
+    }
+
+    /**
+     * Returns accepted lines, one per JMBAG.
+     */
+    @JsonIgnore
+    public List<RosterLineDto> getAcceptedLines() {
+        return lines.stream().filter(line -> line.getReason() == null).toList();
+    }
+}
@@ -0,0 +1,14 @@
+package hr.fer.tzk.rankup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreboardDeltaDto {
+    private Long memberId;
+    private int points;
+    private int position;
+}
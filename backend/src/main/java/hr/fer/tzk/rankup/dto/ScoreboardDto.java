@@ -8,7 +8,15 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ScoreboardDto {
+    private Long memberId;
     private String firstName;
     private String lastName;
     private int points;
+
+    // Places moved up since the compared snapshot, negative if moved down. Null if there is nothing to compare.
+    private Integer rankDelta;
+
+    public ScoreboardDto(Long memberId, String firstName, String lastName, int points) {
+        this(memberId, firstName, lastName, points, null);
+    }
 }
@@ -0,0 +1,17 @@
+package hr.fer.tzk.rankup.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreboardPositionDto {
+    private Long memberId;
+    private int position;
+    private int totalCount;
+    private List<RankedScoreboardDto> neighbours;
+}
@@ -0,0 +1,26 @@
+package hr.fer.tzk.rankup.mapper;
+
+import hr.fer.tzk.rankup.dto.ImportJobDto;
+import hr.fer.tzk.rankup.service.ImportJob;
+
+public class ImportJobMapper {
+
+    public static ImportJobDto toDto(ImportJob job) {
+        if (job == null) {
+            return null;
+        }
+
+        ImportJobDto dto = new ImportJobDto();
+        dto.setId(job.getId());
+        dto.setType(job.getType());
+        dto.setStatus(job.getStatus().name());
+        dto.setProcessed(job.getProcessed());
+        dto.setTotal(job.getTotal());
+        dto.setResult(job.getResult());
+        dto.setError(job.getError());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+
+        return dto;
+    }
+}
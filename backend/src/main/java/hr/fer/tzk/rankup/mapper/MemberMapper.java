@@ -2,6 +2,7 @@ package hr.fer.tzk.rankup.mapper;
 
 import hr.fer.tzk.rankup.dto.BasicMemberDto;
 import hr.fer.tzk.rankup.dto.DetailedMemberDto;
+import hr.fer.tzk.rankup.dto.PassedThresholdRow;
 import hr.fer.tzk.rankup.form.BasicMemberForm;
 import hr.fer.tzk.rankup.model.Member;
 
@@ -48,6 +49,14 @@ public class MemberMapper {
         return dto;
     }
 
+    public static BasicMemberDto toBasicDto(PassedThresholdRow row) {
+        if (row == null) {
+            return null;
+        }
+
+        return new BasicMemberDto(row.getFirstName(), row.getLastName(), row.getJmbag());
+    }
+
     public static BasicMemberDto fromFormToDto(BasicMemberForm form) {
         if (form == null) {
             return null;
@@ -30,6 +30,8 @@ public class ParticipationMapper {
         dto.setId(participation.getIdParticipation());
         dto.setEventDto(eventDto);
         dto.setMemberDto(memberDto);
+        dto.setPlacement(participation.getPlacement());
+        dto.setScore(participation.getScore());
 
         return dto;
     }
@@ -32,6 +32,7 @@ public class SectionMemberMapper {
         }
 
         ScoreboardDto scoreboardDto = new ScoreboardDto();
+        scoreboardDto.setMemberId(sectionMember.getMember().getId());
         scoreboardDto.setFirstName(sectionMember.getMember().getFirstName());
         scoreboardDto.setLastName(sectionMember.getMember().getLastName());
         scoreboardDto.setPoints(sectionMember.getPointsAll());
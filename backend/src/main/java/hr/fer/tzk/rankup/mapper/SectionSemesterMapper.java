@@ -1,5 +1,7 @@
 package hr.fer.tzk.rankup.mapper;
 
+import hr.fer.tzk.rankup.dto.RankedScoreboardDto;
+import hr.fer.tzk.rankup.dto.RankedScoreboardRow;
 import hr.fer.tzk.rankup.dto.ScoreboardDto;
 import hr.fer.tzk.rankup.model.SectionSemester;
 
@@ -11,10 +13,34 @@ public class SectionSemesterMapper {
         }
 
         ScoreboardDto scoreboardDto = new ScoreboardDto();
+        scoreboardDto.setMemberId(sectionSemester.getMember().getId());
         scoreboardDto.setFirstName(sectionSemester.getMember().getFirstName());
         scoreboardDto.setLastName(sectionSemester.getMember().getLastName());
         scoreboardDto.setPoints(sectionSemester.getPoints());
 
         return scoreboardDto;
     }
+
+    public static RankedScoreboardDto toRankedScoreboardDto(ScoreboardDto row, int position) {
+        if (row == null) {
+            return null;
+        }
+
+        return new RankedScoreboardDto(row.getMemberId(), row.getFirstName(), row.getLastName(), row.getPoints(), position);
+    }
+
+    public static RankedScoreboardDto toRankedScoreboardDto(RankedScoreboardRow row) {
+        if (row == null) {
+            return null;
+        }
+
+        RankedScoreboardDto dto = new RankedScoreboardDto();
+        dto.setMemberId(row.getMemberId());
+        dto.setFirstName(row.getFirstName());
+        dto.setLastName(row.getLastName());
+        dto.setPoints(row.getPoints());
+        dto.setPosition(row.getPosition());
+
+        return dto;
+    }
 }
@@ -11,7 +11,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "myevent")
+@Table(name = "myevent",
+        indexes = {
+        @Index(name = "idxeventsectiondate", columnList = "idsection, dateevent")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,6 +21,13 @@ public class Participation {
     @ColumnDefault(value = "0")
     private int addPoints = 0;
 
+    // Result of a tournament event, null for other events.
+    @Column(name = "placement")
+    private Integer placement;
+
+    @Column(name = "score")
+    private Integer score;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "idmember", nullable = false)
     private Member member;
@@ -0,0 +1,42 @@
+package hr.fer.tzk.rankup.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One row of a daily snapshot of a section's total scoreboard. Section and member are stored as plain IDs,
+ * snapshots are history and must not block deleting a member or a section.
+ */
+@Entity
+@Table(name = "scoreboardsnapshot", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"idsection", "snapshotdate", "idmember"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreboardSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "idscoreboardsnapshot")
+    private Long id;
+
+    @Column(name = "idsection", nullable = false)
+    private Long idSection;
+
+    @Column(name = "idmember", nullable = false)
+    private Long idMember;
+
+    @Temporal(TemporalType.DATE)
+    @Column(name = "snapshotdate", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(name = "points", nullable = false)
+    private int points;
+
+    @Column(name = "position", nullable = false)
+    private int position;
+}
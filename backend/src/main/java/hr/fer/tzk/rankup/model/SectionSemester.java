@@ -9,18 +9,27 @@ import lombok.NoArgsConstructor;
 @Table(name = "sectionsemester",
         uniqueConstraints = {
         @UniqueConstraint(columnNames = {"idmember", "idsemester", "idsection"} )
+},
+        indexes = {
+        @Index(name = "idxsectionsemestersection", columnList = "idsection, idsemester")
 })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class SectionSemester {
+
+    /**
+     * Points needed to pass a semester, for rows created by the application and by the participation points trigger.
+     */
+    public static final int DEFAULT_THRESHOLD = 12;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "idsectionsemester")
     private Long id;
 
     @Column(name = "threshold", nullable = false)
-    private int threshold = 13;
+    private int threshold = DEFAULT_THRESHOLD;
 
     @Column(name = "points", nullable = false)
     private int points = 0;
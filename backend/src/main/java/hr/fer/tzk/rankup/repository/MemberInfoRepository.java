@@ -0,0 +1,26 @@
+package hr.fer.tzk.rankup.repository;
+
+import hr.fer.tzk.rankup.dto.MemberAttributeRow;
+import hr.fer.tzk.rankup.model.MemberInfo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@RepositoryRestResource(exported = false)
+public interface MemberInfoRepository extends JpaRepository<MemberInfo, Long> {
+
+    /**
+     * Finds members of the section whose value of the named attribute is one of {@code values}.
+     * Values are compared in lower case, {@code values} must already be lower case.
+     */
+    @Query("SELECT mi.member.id AS memberId, LOWER(mi.stringValue) AS value FROM MemberInfo mi " +
+            "WHERE mi.section.id = :idSection AND LOWER(mi.attribute.name) = LOWER(:attributeName) " +
+            "AND LOWER(mi.stringValue) IN :values")
+    List<MemberAttributeRow> findAllByAttributeValueIn(@Param("idSection") Long idSection, @Param("attributeName") String attributeName, @Param("values") Collection<String> values);
+}
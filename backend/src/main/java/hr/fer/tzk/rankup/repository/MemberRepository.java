@@ -1,10 +1,14 @@
 package hr.fer.tzk.rankup.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.stereotype.Repository;
 import hr.fer.tzk.rankup.model.Member;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,8 +17,16 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
 
     Optional<Member> findByJmbag(String jmbag);
 
+    List<Member> findAllByJmbagIn(Collection<String> jmbags);
+
     Optional<Member> findByEmail(String email);
 
+    @Query("SELECT m.jmbag FROM Member m WHERE m.jmbag IN :jmbags")
+    List<String> findJmbagsIn(@Param("jmbags") Collection<String> jmbags);
+
+    @Query("SELECT m.email FROM Member m WHERE m.email IN :emails")
+    List<String> findEmailsIn(@Param("emails") Collection<String> emails);
+
     void deleteByJmbag(String jmbag);
 
     void deleteByEmail(String email);
@@ -1,17 +1,74 @@
 package hr.fer.tzk.rankup.repository;
 
+import hr.fer.tzk.rankup.dto.PassedThresholdRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.stereotype.Repository;
 import hr.fer.tzk.rankup.model.Participation;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 @RepositoryRestResource(exported = false)
 public interface ParticipationRepository extends JpaRepository<Participation, Long> {
 
+    /**
+     * Section members whose points from the section's events in the semester, including participation bonus points
+     * and the rank's points modifier, reach the threshold. Events are found by the (section, date) index.
+     */
+    String PASSED_THRESHOLD_QUERY = "SELECT m.idmember AS \"memberId\", m.firstname AS \"firstName\", m.lastname AS \"lastName\", " +
+            "m.jmbag AS \"jmbag\", m.email AS \"email\", CAST(COALESCE(c.points, 0) + r.pointsmodifier AS INTEGER) AS \"points\" " +
+            "FROM sectionmember sm " +
+            "JOIN mymember m ON m.idmember = sm.idmember " +
+            "JOIN myrank r ON r.idrank = sm.idrank " +
+            "LEFT JOIN (SELECT p.idmember, SUM(et.defaultpoints + p.addpoints) AS points " +
+            "FROM participation p " +
+            "JOIN myevent e ON e.idevent = p.idevent " +
+            "JOIN eventtype et ON et.ideventtype = e.ideventtype " +
+            "JOIN semester s ON s.idsemester = :idSemester " +
+            "WHERE e.idsection = :idSection AND e.dateevent BETWEEN s.datefromsemester AND s.datetosemester " +
+            "GROUP BY p.idmember) c ON c.idmember = sm.idmember " +
+            "WHERE sm.idsection = :idSection AND COALESCE(c.points, 0) + r.pointsmodifier >= :threshold " +
+            "ORDER BY m.lastname, m.firstname, m.idmember";
+
     List<Participation> findAllByMember_Id(Long idMember);
     List<Participation> findAllByEvent_Id(Long idEvent);
     Participation findByEvent_IdAndMember_Id(Long idEvent, Long idMember);
+
+    @Query("SELECT p.member.id FROM Participation p WHERE p.event.id = :idEvent")
+    List<Long> findMemberIdsByEventId(@Param("idEvent") Long idEvent);
+
+    @Query("SELECT p FROM Participation p JOIN FETCH p.member JOIN FETCH p.event WHERE p.event.id = :idEvent AND p.member.id IN :idMembers")
+    List<Participation> findAllByEventIdAndMemberIdIn(@Param("idEvent") Long idEvent, @Param("idMembers") Collection<Long> idMembers);
+
+    /**
+     * Inserts participations of all given members in the event with a single statement.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO participation (addpoints, idmember, idevent) " +
+            "SELECT 0, m.idmember, :idEvent FROM mymember m WHERE m.idmember IN (:idMembers)",
+            nativeQuery = true)
+    int insertAll(@Param("idEvent") Long idEvent, @Param("idMembers") Collection<Long> idMembers);
+
+    @Modifying
+    @Query("DELETE FROM Participation p WHERE p.event.id = :idEvent")
+    int deleteAllByEventId(@Param("idEvent") Long idEvent);
+
+    @Query(value = PASSED_THRESHOLD_QUERY, nativeQuery = true)
+    List<PassedThresholdRow> findAllWhoPassedThreshold(@Param("idSection") Long idSection, @Param("idSemester") Long idSemester, @Param("threshold") long threshold);
+
+    /**
+     * Same as {@link #findAllWhoPassedThreshold}, but reads rows lazily. Must be consumed and closed in a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(value = PASSED_THRESHOLD_QUERY, nativeQuery = true)
+    Stream<PassedThresholdRow> streamAllWhoPassedThreshold(@Param("idSection") Long idSection, @Param("idSemester") Long idSemester, @Param("threshold") long threshold);
 }
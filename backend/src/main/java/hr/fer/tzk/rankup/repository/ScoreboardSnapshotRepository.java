@@ -0,0 +1,46 @@
+package hr.fer.tzk.rankup.repository;
+
+import hr.fer.tzk.rankup.model.ScoreboardSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@RepositoryRestResource(exported = false)
+public interface ScoreboardSnapshotRepository extends JpaRepository<ScoreboardSnapshot, Long> {
+
+    List<ScoreboardSnapshot> findAllByIdSectionAndSnapshotDate(Long idSection, LocalDate snapshotDate);
+
+    @Query("SELECT DISTINCT s.snapshotDate FROM ScoreboardSnapshot s WHERE s.idSection = :idSection")
+    List<LocalDate> findAllSnapshotDates(@Param("idSection") Long idSection);
+
+    @Query("SELECT DISTINCT s.snapshotDate FROM ScoreboardSnapshot s WHERE s.snapshotDate < :date")
+    List<LocalDate> findAllSnapshotDatesBefore(@Param("date") LocalDate date);
+
+    /**
+     * Writes the whole total scoreboard of the section as one {@code INSERT ... SELECT}. Positions follow
+     * the scoreboard order: points descending, then member ID.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO scoreboardsnapshot (idsection, idmember, snapshotdate, points, position) " +
+            "SELECT sm.idsection, sm.idmember, :date, sm.pointsall, " +
+            "ROW_NUMBER() OVER (ORDER BY sm.pointsall DESC, sm.idmember) " +
+            "FROM sectionmember sm WHERE sm.idsection = :idSection",
+            nativeQuery = true)
+    int insertSnapshot(@Param("idSection") Long idSection, @Param("date") LocalDate date);
+
+    @Modifying
+    @Query("DELETE FROM ScoreboardSnapshot s WHERE s.idSection = :idSection AND s.snapshotDate = :date")
+    int deleteSnapshot(@Param("idSection") Long idSection, @Param("date") LocalDate date);
+
+    @Modifying
+    @Query("DELETE FROM ScoreboardSnapshot s WHERE s.snapshotDate IN :dates")
+    int deleteAllBySnapshotDateIn(@Param("dates") Collection<LocalDate> dates);
+}
@@ -1,10 +1,16 @@
 package hr.fer.tzk.rankup.repository;
 
+import hr.fer.tzk.rankup.dto.PointsDriftRow;
+import hr.fer.tzk.rankup.dto.ScoreboardDto;
 import hr.fer.tzk.rankup.model.SectionMember;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +22,75 @@ public interface SectionMemberRepository extends JpaRepository<SectionMember, Lo
     List<SectionMember> findAllByMember_Id(Long idMember);
 
     Optional<SectionMember> findSectionMemberByMember_IdAndSection_Id(Long idMember, Long idSection);
+
+    @Query("SELECT new hr.fer.tzk.rankup.dto.ScoreboardDto(m.id, m.firstName, m.lastName, sm.pointsAll) " +
+            "FROM SectionMember sm JOIN sm.member m WHERE sm.section.id = :idSection")
+    List<ScoreboardDto> findScoreboardBySectionId(@Param("idSection") Long idSection);
+
+    @Query("SELECT sm.member.id FROM SectionMember sm WHERE sm.section.id = :idSection AND sm.member.id IN :idMembers")
+    List<Long> findMemberIdsBySectionIdAndMemberIdIn(@Param("idSection") Long idSection, @Param("idMembers") Collection<Long> idMembers);
+
+    @Modifying
+    @Query("UPDATE SectionMember sm SET sm.pointsAll = sm.pointsAll + :points WHERE sm.section.id = :idSection AND sm.member.id IN :idMembers")
+    int addPoints(@Param("idSection") Long idSection, @Param("idMembers") Collection<Long> idMembers, @Param("points") int points);
+
+    @Modifying
+    @Query("UPDATE SectionMember sm SET sm.pointsAll = sm.pointsAll + :points WHERE sm.section.id = :idSection " +
+            "AND sm.member.id IN (SELECT p.member.id FROM Participation p WHERE p.event.id = :idEvent)")
+    int addPointsToParticipants(@Param("idSection") Long idSection, @Param("idEvent") Long idEvent, @Param("points") int points);
+
+    /**
+     * Adds {@code points} to total points of section members once for every participation in the section's events
+     * of the given type. Rows without such participations are not touched.
+     */
+    @Modifying
+    @Query(value = "UPDATE sectionmember SET pointsall = pointsall + :points * (SELECT COUNT(*) " +
+            "FROM participation p JOIN myevent e ON e.idevent = p.idevent " +
+            "WHERE e.ideventtype = :idEventType AND p.idmember = sectionmember.idmember AND e.idsection = sectionmember.idsection) " +
+            "WHERE EXISTS (SELECT 1 FROM participation p JOIN myevent e ON e.idevent = p.idevent " +
+            "WHERE e.ideventtype = :idEventType AND p.idmember = sectionmember.idmember AND e.idsection = sectionmember.idsection)",
+            nativeQuery = true)
+    int addPointsPerParticipationInEventType(@Param("idEventType") Long idEventType, @Param("points") int points);
+
+    /**
+     * Computes total points of every section member from participations in the section's events,
+     * and returns members whose stored points differ.
+     */
+    @Query(value = "SELECT sm.idsectionmember AS \"id\", sm.idmember AS \"memberId\", CAST(NULL AS BIGINT) AS \"semesterId\", " +
+            "sm.pointsall AS \"stored\", CAST(COALESCE(c.points, 0) AS INTEGER) AS \"computed\" " +
+            "FROM sectionmember sm " +
+            "LEFT JOIN (SELECT p.idmember, SUM(et.defaultpoints) AS points " +
+            "FROM participation p " +
+            "JOIN myevent e ON e.idevent = p.idevent " +
+            "JOIN eventtype et ON et.ideventtype = e.ideventtype " +
+            "WHERE e.idsection = :idSection " +
+            "GROUP BY p.idmember) c ON c.idmember = sm.idmember " +
+            "WHERE sm.idsection = :idSection AND sm.pointsall <> COALESCE(c.points, 0) " +
+            "ORDER BY sm.idmember",
+            nativeQuery = true)
+    List<PointsDriftRow> findPointsDrift(@Param("idSection") Long idSection);
+
+    /**
+     * Sets total points of the given section members to points computed from participations.
+     */
+    @Modifying
+    @Query(value = "UPDATE sectionmember SET pointsall = (SELECT COALESCE(SUM(et.defaultpoints), 0) " +
+            "FROM participation p " +
+            "JOIN myevent e ON e.idevent = p.idevent " +
+            "JOIN eventtype et ON et.ideventtype = e.ideventtype " +
+            "WHERE p.idmember = sectionmember.idmember AND e.idsection = sectionmember.idsection) " +
+            "WHERE idsectionmember IN :ids",
+            nativeQuery = true)
+    int recalculatePoints(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Adds members with the given JMBAGs to the section with a single statement. Members already in the section are
+     * skipped.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sectionmember (isactive, pointsall, idmember, idsection, idrank) " +
+            "SELECT TRUE, 0, m.idmember, :idSection, :idRank FROM mymember m WHERE m.jmbag IN (:jmbags) " +
+            "AND NOT EXISTS (SELECT 1 FROM sectionmember sm WHERE sm.idmember = m.idmember AND sm.idsection = :idSection)",
+            nativeQuery = true)
+    int insertAllByJmbags(@Param("idSection") Long idSection, @Param("idRank") Long idRank, @Param("jmbags") Collection<String> jmbags);
 }
@@ -1,10 +1,17 @@
 package hr.fer.tzk.rankup.repository;
 
+import hr.fer.tzk.rankup.dto.PointsDriftRow;
+import hr.fer.tzk.rankup.dto.RankedScoreboardRow;
+import hr.fer.tzk.rankup.dto.ScoreboardDto;
 import hr.fer.tzk.rankup.model.SectionSemester;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +22,120 @@ public interface SectionSemesterRepository extends JpaRepository<SectionSemester
     Optional<SectionSemester> findByMember_IdAndSection_IdAndSemester_Id(Long idMember, Long idSection, Long idSemester);
 
     List<SectionSemester> findBySection_IdAndSemester_Id(Long idSection, Long idSemester);
+
+    @Query("SELECT ss FROM SectionSemester ss JOIN FETCH ss.member m " +
+            "WHERE ss.section.id = :idSection AND ss.semester.id = :idSemester AND m.jmbag IN :jmbags")
+    List<SectionSemester> findAllBySectionIdAndSemesterIdAndJmbagIn(@Param("idSection") Long idSection, @Param("idSemester") Long idSemester, @Param("jmbags") Collection<String> jmbags);
+
+    @Query("SELECT new hr.fer.tzk.rankup.dto.ScoreboardDto(m.id, m.firstName, m.lastName, ss.points) " +
+            "FROM SectionSemester ss JOIN ss.member m WHERE ss.section.id = :idSection AND ss.semester.id = :idSemester")
+    List<ScoreboardDto> findScoreboardBySectionIdAndSemesterId(@Param("idSection") Long idSection, @Param("idSemester") Long idSemester);
+
+    @Modifying
+    @Query("UPDATE SectionSemester ss SET ss.points = ss.points + :points " +
+            "WHERE ss.section.id = :idSection AND ss.semester.id = :idSemester AND ss.member.id IN :idMembers")
+    int addPoints(@Param("idSection") Long idSection, @Param("idSemester") Long idSemester, @Param("idMembers") Collection<Long> idMembers, @Param("points") int points);
+
+    @Modifying
+    @Query("UPDATE SectionSemester ss SET ss.points = ss.points + :points " +
+            "WHERE ss.section.id = :idSection AND ss.semester.id = :idSemester " +
+            "AND ss.member.id IN (SELECT p.member.id FROM Participation p WHERE p.event.id = :idEvent)")
+    int addPointsToParticipants(@Param("idSection") Long idSection, @Param("idSemester") Long idSemester, @Param("idEvent") Long idEvent, @Param("points") int points);
+
+    /**
+     * Adds {@code points} to semester points of section members once for every participation in the section's events
+     * of the given type held during the semester. Rows without such participations are not touched.
+     */
+    @Modifying
+    @Query(value = "UPDATE sectionsemester SET points = points + :points * (SELECT COUNT(*) " +
+            "FROM participation p JOIN myevent e ON e.idevent = p.idevent " +
+            "JOIN semester s ON s.idsemester = sectionsemester.idsemester " +
+            "WHERE e.ideventtype = :idEventType AND p.idmember = sectionsemester.idmember AND e.idsection = sectionsemester.idsection " +
+            "AND e.dateevent BETWEEN s.datefromsemester AND s.datetosemester) " +
+            "WHERE EXISTS (SELECT 1 FROM participation p JOIN myevent e ON e.idevent = p.idevent " +
+            "JOIN semester s ON s.idsemester = sectionsemester.idsemester " +
+            "WHERE e.ideventtype = :idEventType AND p.idmember = sectionsemester.idmember AND e.idsection = sectionsemester.idsection " +
+            "AND e.dateevent BETWEEN s.datefromsemester AND s.datetosemester)",
+            nativeQuery = true)
+    int addPointsPerParticipationInEventType(@Param("idEventType") Long idEventType, @Param("points") int points);
+
+    /**
+     * Sums semester points of every section member over all semesters between the start of
+     * {@code idSemesterFrom} and the end of {@code idSemesterTo}, and ranks members with dense ranking.
+     */
+    @Query(value = "SELECT m.idmember AS \"memberId\", m.firstname AS \"firstName\", m.lastname AS \"lastName\", " +
+            "CAST(SUM(ss.points) AS INTEGER) AS \"points\", " +
+            "CAST(DENSE_RANK() OVER (ORDER BY SUM(ss.points) DESC) AS INTEGER) AS \"position\" " +
+            "FROM sectionsemester ss " +
+            "JOIN semester s ON s.idsemester = ss.idsemester " +
+            "JOIN mymember m ON m.idmember = ss.idmember " +
+            "WHERE ss.idsection = :idSection " +
+            "AND s.datefromsemester >= (SELECT f.datefromsemester FROM semester f WHERE f.idsemester = :idSemesterFrom) " +
+            "AND s.datetosemester <= (SELECT t.datetosemester FROM semester t WHERE t.idsemester = :idSemesterTo) " +
+            "GROUP BY m.idmember, m.firstname, m.lastname " +
+            "ORDER BY 4 DESC, m.idmember",
+            nativeQuery = true)
+    List<RankedScoreboardRow> findRankedScoreboardBetweenSemesters(@Param("idSection") Long idSection, @Param("idSemesterFrom") Long idSemesterFrom, @Param("idSemesterTo") Long idSemesterTo);
+
+    /**
+     * Sums semester points of every section member over the latest {@code n} semesters and ranks
+     * members with dense ranking.
+     */
+    @Query(value = "SELECT m.idmember AS \"memberId\", m.firstname AS \"firstName\", m.lastname AS \"lastName\", " +
+            "CAST(SUM(ss.points) AS INTEGER) AS \"points\", " +
+            "CAST(DENSE_RANK() OVER (ORDER BY SUM(ss.points) DESC) AS INTEGER) AS \"position\" " +
+            "FROM sectionsemester ss " +
+            "JOIN mymember m ON m.idmember = ss.idmember " +
+            "WHERE ss.idsection = :idSection " +
+            "AND ss.idsemester IN (SELECT s.idsemester FROM semester s ORDER BY s.datetosemester DESC LIMIT :n) " +
+            "GROUP BY m.idmember, m.firstname, m.lastname " +
+            "ORDER BY 4 DESC, m.idmember",
+            nativeQuery = true)
+    List<RankedScoreboardRow> findRankedScoreboardForLatestSemesters(@Param("idSection") Long idSection, @Param("n") int n);
+
+    /**
+     * Computes semester points of every section member in the given semesters from participations in the
+     * section's events held during the semester, and returns rows whose stored points differ.
+     */
+    @Query(value = "SELECT ss.idsectionsemester AS \"id\", ss.idmember AS \"memberId\", ss.idsemester AS \"semesterId\", " +
+            "ss.points AS \"stored\", CAST(COALESCE(c.points, 0) AS INTEGER) AS \"computed\" " +
+            "FROM sectionsemester ss " +
+            "LEFT JOIN (SELECT p.idmember, s.idsemester, SUM(et.defaultpoints) AS points " +
+            "FROM participation p " +
+            "JOIN myevent e ON e.idevent = p.idevent " +
+            "JOIN eventtype et ON et.ideventtype = e.ideventtype " +
+            "JOIN semester s ON e.dateevent BETWEEN s.datefromsemester AND s.datetosemester " +
+            "WHERE e.idsection = :idSection AND s.idsemester IN :idSemesters " +
+            "GROUP BY p.idmember, s.idsemester) c ON c.idmember = ss.idmember AND c.idsemester = ss.idsemester " +
+            "WHERE ss.idsection = :idSection AND ss.idsemester IN :idSemesters AND ss.points <> COALESCE(c.points, 0) " +
+            "ORDER BY ss.idsemester, ss.idmember",
+            nativeQuery = true)
+    List<PointsDriftRow> findPointsDrift(@Param("idSection") Long idSection, @Param("idSemesters") Collection<Long> idSemesters);
+
+    /**
+     * Sets points of the given section semesters to points computed from participations.
+     */
+    @Modifying
+    @Query(value = "UPDATE sectionsemester SET points = (SELECT COALESCE(SUM(et.defaultpoints), 0) " +
+            "FROM participation p " +
+            "JOIN myevent e ON e.idevent = p.idevent " +
+            "JOIN eventtype et ON et.ideventtype = e.ideventtype " +
+            "JOIN semester s ON s.idsemester = sectionsemester.idsemester " +
+            "WHERE p.idmember = sectionsemester.idmember AND e.idsection = sectionsemester.idsection " +
+            "AND e.dateevent BETWEEN s.datefromsemester AND s.datetosemester) " +
+            "WHERE idsectionsemester IN :ids",
+            nativeQuery = true)
+    int recalculatePoints(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Creates a row in every semester for members with the given JMBAGs with a single statement. Existing rows are
+     * skipped.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sectionsemester (threshold, points, peenrolled, idsemester, idsection, idmember) " +
+            "SELECT :threshold, 0, FALSE, s.idsemester, :idSection, m.idmember FROM mymember m CROSS JOIN semester s " +
+            "WHERE m.jmbag IN (:jmbags) AND NOT EXISTS (SELECT 1 FROM sectionsemester ss " +
+            "WHERE ss.idmember = m.idmember AND ss.idsemester = s.idsemester AND ss.idsection = :idSection)",
+            nativeQuery = true)
+    int insertAllByJmbags(@Param("idSection") Long idSection, @Param("jmbags") Collection<String> jmbags, @Param("threshold") int threshold);
 }
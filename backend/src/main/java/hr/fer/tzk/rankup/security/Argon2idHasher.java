@@ -10,25 +10,55 @@ public class Argon2idHasher extends PasswordHasher {
 
     private static final SecureRandom random = new SecureRandom();
 
-    // Parameters for hashing
-    private static final int MEMORY_COST = 65536; // 64 MB
-    private static final int ITERATIONS = 2;
-    private static final int PARALLEL_THREADS = 1;
+    // Argon2 instances hold no state between calls, so one is shared by all threads.
+    private static final Argon2 ARGON2 = Argon2Factory.create(Argon2Factory.Argon2Types.ARGON2id);
+
+    // Default parameters for hashing
+    public static final int MEMORY_COST = 65536; // 64 MB
+    public static final int ITERATIONS = 2;
+    public static final int PARALLEL_THREADS = 1;
+
+    private final int memoryCost;
+    private final int iterations;
+    private final int parallelThreads;
+
+    public Argon2idHasher() {
+        this(MEMORY_COST, ITERATIONS, PARALLEL_THREADS);
+    }
+
+    /**
+     * Creates a hasher for new hashes with the given parameters. Existing hashes are checked with the parameters
+     * stored in them, so changing parameters does not break logins.
+     *
+     * @param memoryCost memory used by one hash, in KiB.
+     * @param iterations number of passes over the memory.
+     * @param parallelThreads number of lanes computed in parallel.
+     */
+    public Argon2idHasher(int memoryCost, int iterations, int parallelThreads) {
+        this.memoryCost = memoryCost;
+        this.iterations = iterations;
+        this.parallelThreads = parallelThreads;
+    }
 
     @Override
     public String hashPassword(String password, String salt) {
-        Argon2 argon2 = Argon2Factory.create(Argon2Factory.Argon2Types.ARGON2id);
-        String saltedPassword = password + salt;
-        final String hash = argon2.hash(ITERATIONS, MEMORY_COST, PARALLEL_THREADS, saltedPassword.toCharArray());
-        return addPrefix(hash);
+        char[] saltedPassword = (password + salt).toCharArray();
+        try {
+            return addPrefix(ARGON2.hash(iterations, memoryCost, parallelThreads, saltedPassword));
+        } finally {
+            ARGON2.wipeArray(saltedPassword);
+        }
     }
 
     @Override
     public boolean checkPassword(String password, String salt, String hash) {
-        Argon2 argon2 = Argon2Factory.create(Argon2Factory.Argon2Types.ARGON2id);
-        final String saltedPassword = password + salt;
+        char[] saltedPassword = (password + salt).toCharArray();
         final String noPrefixHash = hash.substring(getPrefix().length());
-        return argon2.verify(noPrefixHash, saltedPassword.toCharArray());
+        try {
+            return ARGON2.verify(noPrefixHash, saltedPassword);
+        } finally {
+            ARGON2.wipeArray(saltedPassword);
+        }
     }
 
     @Override
@@ -36,6 +66,29 @@ public class Argon2idHasher extends PasswordHasher {
         return "{argon2id}";
     }
 
+    @Override
+    public boolean needsRehash(String hash) {
+        return super.needsRehash(hash)
+                || ARGON2.needsRehash(hash.substring(getPrefix().length()), iterations, memoryCost, parallelThreads);
+    }
+
+    public int getMemoryCost() {
+        return memoryCost;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public int getParallelThreads() {
+        return parallelThreads;
+    }
+
+    @Override
+    public String getParameters() {
+        return "m=" + memoryCost + ",t=" + iterations + ",p=" + parallelThreads;
+    }
+
     @Override
     public String generateSalt() {
         byte[] salt = new byte[SALT_SIZE];
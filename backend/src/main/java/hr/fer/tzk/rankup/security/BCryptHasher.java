@@ -7,12 +7,28 @@ import java.util.Base64;
 // TODO: Add tests for this
 public class BCryptHasher extends PasswordHasher {
 
+    // Cost of BCrypt.gensalt() without arguments.
+    public static final int LOG_ROUNDS = 10;
+
     private final SecureRandom random = new SecureRandom();
+    private final int logRounds;
+
+    public BCryptHasher() {
+        this(LOG_ROUNDS);
+    }
+
+    /**
+     * Creates a hasher for new hashes with {@code 2^logRounds} rounds. Existing hashes are checked with the cost
+     * stored in them.
+     */
+    public BCryptHasher(int logRounds) {
+        this.logRounds = logRounds;
+    }
 
     @Override
     public String hashPassword(String password, String salt) {
         String combinedPassword = password + salt;
-        String bcryptSalt = BCrypt.gensalt();
+        String bcryptSalt = BCrypt.gensalt(logRounds);
         return addPrefix(BCrypt.hashpw(combinedPassword, bcryptSalt));
     }
 
@@ -28,6 +44,25 @@ public class BCryptHasher extends PasswordHasher {
         return "{bcrypt}";
     }
 
+    @Override
+    public boolean needsRehash(String hash) {
+        if (super.needsRehash(hash)) {
+            return true;
+        }
+        // Hashes look like $2a$10$..., where 10 is the cost.
+        String[] parts = hash.substring(getPrefix().length()).split("\\$");
+        return parts.length < 3 || !parts[2].equals(String.format("%02d", logRounds));
+    }
+
+    public int getLogRounds() {
+        return logRounds;
+    }
+
+    @Override
+    public String getParameters() {
+        return "cost=" + logRounds;
+    }
+
     @Override
     public String generateSalt() {
         byte[] salt = new byte[SALT_SIZE];
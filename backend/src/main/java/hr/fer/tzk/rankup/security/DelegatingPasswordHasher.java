@@ -0,0 +1,77 @@
+package hr.fer.tzk.rankup.security;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashes new passwords with the current hasher and checks stored hashes with the hasher whose prefix they carry.
+ *
+ * <p>
+ * Argon2id and bcrypt hashes also carry their own parameters, so hashes made before the parameters changed still
+ * verify. {@link #needsRehash(String)} tells if a hash should be replaced with one made by the current hasher, which
+ * is done on the next successful login.
+ * </p>
+ */
+public class DelegatingPasswordHasher extends PasswordHasher {
+
+    private final PasswordHasher current;
+    private final Map<String, PasswordHasher> verifiers = new LinkedHashMap<>();
+
+    /**
+     * @param current hasher for new hashes, also used to check hashes with its prefix.
+     * @param verifiers hashers for checking hashes made by other algorithms.
+     */
+    public DelegatingPasswordHasher(PasswordHasher current, List<PasswordHasher> verifiers) {
+        this.current = current;
+        for (PasswordHasher verifier : verifiers) {
+            this.verifiers.putIfAbsent(verifier.getPrefix(), verifier);
+        }
+        this.verifiers.put(current.getPrefix(), current);
+    }
+
+    @Override
+    public String hashPassword(String password, String salt) {
+        return current.hashPassword(password, salt);
+    }
+
+    /**
+     * Checks the password with the hasher of the hash's prefix. Hashes without a known prefix never match.
+     */
+    @Override
+    public boolean checkPassword(String password, String salt, String hash) {
+        if (hash == null) {
+            return false;
+        }
+        PasswordHasher verifier = findVerifier(hash);
+        return verifier != null && verifier.checkPassword(password, salt, hash);
+    }
+
+    @Override
+    public boolean needsRehash(String hash) {
+        return current.needsRehash(hash);
+    }
+
+    @Override
+    public String getPrefix() {
+        return current.getPrefix();
+    }
+
+    @Override
+    public String getParameters() {
+        return current.getParameters();
+    }
+
+    @Override
+    public String generateSalt() {
+        return current.generateSalt();
+    }
+
+    private PasswordHasher findVerifier(String hash) {
+        int end = hash.indexOf('}');
+        if (!hash.startsWith("{") || end < 0) {
+            return null;
+        }
+        return verifiers.get(hash.substring(0, end + 1));
+    }
+}
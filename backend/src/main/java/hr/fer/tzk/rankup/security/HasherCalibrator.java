@@ -0,0 +1,102 @@
+package hr.fer.tzk.rankup.security;
+
+import de.mkammerer.argon2.Argon2;
+import de.mkammerer.argon2.Argon2Factory;
+import de.mkammerer.argon2.Argon2Helper;
+import org.mindrot.jbcrypt.BCrypt;
+
+/**
+ * Picks hashing parameters that take about the target time on the current machine.
+ *
+ * <p>
+ * Measurements change with load, so the application does not calibrate on startup; a changed result would make
+ * every stored hash look outdated. Run {@link #main(String[])} on the server instead and put the printed
+ * properties into its configuration.
+ * </p>
+ *
+ * <p>
+ * Parameters never go below the minimums of the OWASP Password Storage Cheat Sheet (argon2id with 46 MiB and one
+ * iteration or 19 MiB and two iterations, bcrypt with cost 10), even if the machine is too slow to reach the target
+ * with them.
+ * </p>
+ */
+public class HasherCalibrator {
+
+    public static final int MIN_ARGON2_MEMORY_COST = 19456; // 19 MiB, needs two iterations
+    public static final int MIN_ARGON2_MEMORY_COST_ONE_ITERATION = 47104; // 46 MiB
+    public static final int MIN_BCRYPT_LOG_ROUNDS = 10;
+    private static final int MAX_BCRYPT_LOG_ROUNDS = 16;
+
+    private static final String PASSWORD = "calibration-password";
+
+    /**
+     * Returns an argon2id hasher that uses at most {@code memoryCost} KiB per hash and takes at most
+     * {@code targetMillis}. The number of iterations is raised as long as one hash stays within the target; if even
+     * one iteration is too slow, the memory is halved until it fits or reaches the minimum. Below 46 MiB at least two
+     * iterations are used.
+     *
+     * @param targetMillis time one hash may take.
+     * @param memoryCost memory budget of one hash, in KiB.
+     * @param parallelThreads number of lanes computed in parallel.
+     * @return calibrated hasher
+     */
+    public static Argon2idHasher calibrateArgon2id(long targetMillis, int memoryCost, int parallelThreads) {
+        Argon2 argon2 = Argon2Factory.create(Argon2Factory.Argon2Types.ARGON2id);
+        int memory = Math.max(memoryCost, MIN_ARGON2_MEMORY_COST);
+        while (true) {
+            int iterations = Argon2Helper.findIterations(argon2, targetMillis, memory, parallelThreads);
+            if (iterations > 0 || memory / 2 < MIN_ARGON2_MEMORY_COST) {
+                return new Argon2idHasher(memory, Math.max(iterations, minIterations(memory)), parallelThreads);
+            }
+            memory /= 2;
+        }
+    }
+
+    /**
+     * Returns a bcrypt hasher with the highest cost whose hash takes at most {@code targetMillis}.
+     *
+     * @param targetMillis time one hash may take.
+     * @return calibrated hasher
+     */
+    public static BCryptHasher calibrateBCrypt(long targetMillis) {
+        // Warm up, so the first measurement is not slowed down by the JIT compiler.
+        BCrypt.hashpw(PASSWORD, BCrypt.gensalt(4));
+
+        int logRounds = MIN_BCRYPT_LOG_ROUNDS;
+        while (logRounds < MAX_BCRYPT_LOG_ROUNDS && timeBCrypt(logRounds + 1) <= targetMillis) {
+            logRounds++;
+        }
+        return new BCryptHasher(logRounds);
+    }
+
+    private static int minIterations(int memoryCost) {
+        return memoryCost >= MIN_ARGON2_MEMORY_COST_ONE_ITERATION ? 1 : 2;
+    }
+
+    private static long timeBCrypt(int logRounds) {
+        long start = System.nanoTime();
+        BCrypt.hashpw(PASSWORD, BCrypt.gensalt(logRounds));
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Prints the {@code rankup.hashing} properties for this machine.
+     *
+     * @param args target time of one hash in milliseconds (default 500), memory budget of all hashing threads in MB
+     *             (default 128) and number of hashing threads (default 2).
+     */
+    public static void main(String[] args) {
+        long targetMillis = args.length > 0 ? Long.parseLong(args[0]) : 500;
+        int memoryBudgetMb = args.length > 1 ? Integer.parseInt(args[1]) : 128;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+
+        int memoryCost = memoryBudgetMb * 1024 / Math.max(threads, 1);
+        Argon2idHasher argon2id = calibrateArgon2id(targetMillis, memoryCost, Argon2idHasher.PARALLEL_THREADS);
+        BCryptHasher bcrypt = calibrateBCrypt(targetMillis);
+
+        System.out.println("rankup.hashing.argon2.memory-cost=" + argon2id.getMemoryCost());
+        System.out.println("rankup.hashing.argon2.iterations=" + argon2id.getIterations());
+        System.out.println("rankup.hashing.argon2.parallelism=" + argon2id.getParallelThreads());
+        System.out.println("rankup.hashing.bcrypt.cost=" + bcrypt.getLogRounds());
+    }
+}
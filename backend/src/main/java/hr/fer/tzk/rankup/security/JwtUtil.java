@@ -1,12 +1,33 @@
 package hr.fer.tzk.rankup.security;
 
+import hr.fer.tzk.rankup.dto.JwtCacheStatsDto;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Creates and validates login tokens.
+ *
+ * <p>
+ * Every authenticated request carries the same token until it expires, so tokens that passed validation are kept
+ * in memory, keyed by their SHA-256 digest, together with their email and expiration. A repeated token is then a
+ * single lookup instead of an HMAC check and JSON parsing. Entries are dropped once the token expires; at most
+ * {@code rankup.jwt.cache-size} tokens are kept, tokens beyond that are validated every time.
+ * </p>
+ */
 @Component
 public class JwtUtil {
 
@@ -14,6 +35,17 @@ public class JwtUtil {
     private static final long EXPIRATION = 1000 * 60 * 60; // 1 hour
 
     private final SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+    private final JwtParser parser = Jwts.parser().verifyWith(key).build();
+
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final int cacheSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public JwtUtil(@Value("${rankup.jwt.cache-size:10000}") int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
 
     public String generateToken(String email) {
         return Jwts.builder()
@@ -25,15 +57,55 @@ public class JwtUtil {
     }
 
     public String validateAndExtractEmail(String token) {
+        String digest = digest(token);
+        VerifiedToken verified = verifiedTokens.get(digest);
+        if (verified != null) {
+            if (verified.expiresAt() > System.currentTimeMillis()) {
+                hits.increment();
+                return verified.email();
+            }
+            verifiedTokens.remove(digest);
+        }
+        misses.increment();
+
+        Claims claims;
         try {
-            return Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getSubject();
-        } catch (JwtException e) {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
             return null; // Token invalid or expired
         }
+
+        Date expiration = claims.getExpiration();
+        if (expiration != null && claims.getSubject() != null) {
+            if (verifiedTokens.size() >= cacheSize) {
+                removeExpired();
+            }
+            if (verifiedTokens.size() < cacheSize) {
+                verifiedTokens.put(digest, new VerifiedToken(claims.getSubject(), expiration.getTime()));
+            }
+        }
+        return claims.getSubject();
+    }
+
+    public JwtCacheStatsDto getStats() {
+        return new JwtCacheStatsDto(verifiedTokens.size(), cacheSize, hits.sum(), misses.sum());
+    }
+
+    @Scheduled(fixedDelayString = "${rankup.jwt.cache-cleanup-ms:60000}")
+    public void removeExpired() {
+        long now = System.currentTimeMillis();
+        verifiedTokens.values().removeIf(verified -> verified.expiresAt() <= now);
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record VerifiedToken(String email, long expiresAt) {
     }
 }
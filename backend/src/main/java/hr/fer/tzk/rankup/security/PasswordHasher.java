@@ -39,6 +39,27 @@ public abstract class PasswordHasher {
      */
     public abstract String getPrefix();
 
+    /**
+     * Checks if the hash was made with another algorithm or other parameters than this hasher uses for new hashes,
+     * so it should be replaced after the next successful login.
+     *
+     * @param hash The stored hash, with its prefix.
+     * @return True if the password should be hashed again, false otherwise.
+     */
+    public boolean needsRehash(String hash) {
+        return !hash.startsWith(getPrefix());
+    }
+
+    /**
+     * Returns the cost parameters used for new hashes, e.g. {@code m=65536,t=2,p=1} for argon2id,
+     * or an empty string if the algorithm has none.
+     *
+     * @return The cost parameters of the algorithm.
+     */
+    public String getParameters() {
+        return "";
+    }
+
     /**
      * Generates a new salt for hashing.
      *
@@ -8,29 +8,28 @@ import hr.fer.tzk.rankup.mapper.MemberMapper;
 import hr.fer.tzk.rankup.model.Member;
 import hr.fer.tzk.rankup.model.SectionMember;
 import hr.fer.tzk.rankup.security.JwtUtil;
-import hr.fer.tzk.rankup.security.PasswordHasher;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.AbstractMap;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class AuthService {
 
     private final JwtUtil jwtUtil;
-    private final PasswordHasher passwordHasher;
+    private final PasswordHashingService passwordHashingService;
     private final MemberService memberService;
     private final VerificationService verificationService;
     private final SectionMemberService sectionMemberService;
 
     @Autowired
-    public AuthService(JwtUtil jwtUtil, @Qualifier("argon2idHasher") PasswordHasher passwordHasher, MemberService memberService, VerificationService verificationService, SectionMemberService sectionMemberService) {
+    public AuthService(JwtUtil jwtUtil, PasswordHashingService passwordHashingService, MemberService memberService, VerificationService verificationService, SectionMemberService sectionMemberService) {
         this.jwtUtil = jwtUtil;
-        this.passwordHasher = passwordHasher;
+        this.passwordHashingService = passwordHashingService;
         this.memberService = memberService;
         this.verificationService = verificationService;
         this.sectionMemberService = sectionMemberService;
@@ -58,7 +57,7 @@ public class AuthService {
         String storedHash = member.getPasswordHash();
         String salt = member.getSalt();
 
-        if (!passwordHasher.checkPassword(login.getPassword(), salt, storedHash)) {
+        if (!passwordHashingService.checkPassword(login.getPassword(), salt, storedHash)) {
             return new AbstractMap.SimpleEntry<>(HttpStatus.BAD_REQUEST, new UserDto(null, null, "Invalid email or password", null, false));
         }
 
@@ -66,6 +65,8 @@ public class AuthService {
             return new AbstractMap.SimpleEntry<>(HttpStatus.BAD_REQUEST, new UserDto(null, null, "Invalid email or password", null, false));
         }
 
+        rehashIfNeeded(member, login.getPassword());
+
         String token = jwtUtil.generateToken(member.getEmail());
         BasicMemberDto memberDto = MemberMapper.toBasicDto(member);
         UserDto userDto = new UserDto(memberDto, token, null, member.getId(), isSuperAdmin(member.getId()));
@@ -78,8 +79,8 @@ public class AuthService {
             return new AbstractMap.SimpleEntry<>(HttpStatus.CONFLICT, checkForConflictRes);
         }
 
-        String salt = passwordHasher.generateSalt();
-        String passwordHash = passwordHasher.hashPassword(form.getPassword(), salt);
+        String salt = passwordHashingService.generateSalt();
+        String passwordHash = passwordHashingService.hashPassword(form.getPassword(), salt);
 
         Member newMember;
         try {
@@ -125,6 +126,25 @@ public class AuthService {
         );
     }
 
+    /**
+     * Replaces the stored hash with one made with the current algorithm and parameters, while the plain password is
+     * known. While the hashing pool is busy, e.g. during a burst of logins, the old hash is kept and replaced on a
+     * later login, so rehashing never delays other logins.
+     */
+    private void rehashIfNeeded(Member member, String password) {
+        if (!passwordHashingService.needsRehash(member.getPasswordHash()) || !passwordHashingService.isIdle()) {
+            return;
+        }
+        try {
+            String salt = passwordHashingService.generateSalt();
+            member.setPasswordHash(passwordHashingService.hashPassword(password, salt));
+            member.setSalt(salt);
+            memberService.updateMember(member);
+        } catch (RejectedExecutionException ignored) {
+            // The login itself succeeded, the hash is replaced next time.
+        }
+    }
+
     private boolean isSuperAdmin(Long memberId) {
         long sectionId = 1;
         SectionMember sectionMember = sectionMemberService.findSectionMemberByIdSection(memberId, sectionId).orElse(null);
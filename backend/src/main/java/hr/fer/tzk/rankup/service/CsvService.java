@@ -1,83 +1,81 @@
 package hr.fer.tzk.rankup.service;
 
+import hr.fer.tzk.rankup.dto.LichessImportDto;
+import hr.fer.tzk.rankup.dto.LichessLineDto;
 import hr.fer.tzk.rankup.model.Event;
-import hr.fer.tzk.rankup.model.Member;
-import hr.fer.tzk.rankup.model.Participation;
-import hr.fer.tzk.rankup.model.Section;
-import hr.fer.tzk.rankup.repository.EventRepository;
-import hr.fer.tzk.rankup.repository.MemberRepository;
-import hr.fer.tzk.rankup.repository.ParticipationRepository;
+import hr.fer.tzk.rankup.repository.MemberInfoRepository;
+import hr.fer.tzk.rankup.utils.LichessUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import java.io.*;
-import java.time.LocalDate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class CsvService {
-    /*
-    @Autowired
-    private MemberRepository memberRepository;
-    @Autowired
-    private EventRepository eventRepository;
-    @Autowired
-    private ParticipationRepository participationRepository;
-     */
-    @Autowired
-    private SectionService sectionService;
+    private final EventService eventService;
+    private final ParticipationService participationService;
+    private final MemberInfoRepository memberInfoRepository;
+    private final String usernameAttribute;
 
     @Autowired
-    private EventService eventService;
-
-    public void convertLichessCsvToDb(InputStream csvInputStream, String eventName, int defaultPoints) throws IOException {
-        Optional<Section> chessSectionOpt = sectionService.findSectionById(1L);
-        if (chessSectionOpt.isEmpty()) {
-            throw new IOException("Section not found");
-        }
-        Section chessSection = chessSectionOpt.get();
+    public CsvService(EventService eventService, ParticipationService participationService, MemberInfoRepository memberInfoRepository,
+                      @Value("${rankup.lichess.username-attribute:Lichess}") String usernameAttribute) {
+        this.eventService = eventService;
+        this.participationService = participationService;
+        this.memberInfoRepository = memberInfoRepository;
+        this.usernameAttribute = usernameAttribute;
+    }
 
+    /**
+     * Imports results of a Lichess tournament as participations in the event.
+     *
+     * <p>
+     * The file is streamed and all usernames are resolved with one lookup of the members' Lichess username attribute
+     * in the event's section. Participations of matched members are then created with one batched insert that also
+     * stores each member's placement and score. Every player line is reported with its placement and score, and the
+     * reason if it was rejected.
+     * </p>
+     *
+     * @param csvInputStream content of the tournament CSV export.
+     * @param eventName name of the event the tournament belongs to.
+     * @return report of the import
+     * @throws IOException if the event does not exist or the file cannot be read.
+     */
+    public LichessImportDto convertLichessCsvToDb(InputStream csvInputStream, String eventName) throws IOException {
         Optional<Event> eventOpt = eventService.findByName(eventName);
         if (eventOpt.isEmpty()) {
             throw new IOException("Event not found");
         }
         Event event = eventOpt.get();
+        Long sectionId = event.getSection().getId();
 
-        //TODO: Check with Luka if event needs to be created if not found
+        List<LichessLineDto> lines = LichessUtils.parseArena(csvInputStream);
+        Map<String, LichessLineDto> linesByUsername = new HashMap<>();
+        lines.stream()
+                .filter(line -> line.getReason() == null)
+                .forEach(line -> linesByUsername.put(line.getUsername(), line));
 
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csvInputStream))) {
-            String line;
-                    /*
-                    .orElseGet(() -> {
-                        Event newEvent = new Event();
-                        newEvent.setName(eventName);
-                        newEvent.setDefaultPoints(defaultPoints);
-                        newEvent.setDateFrom(LocalDate.now());
-                        newEvent.setDateTo(LocalDate.now());
-                        newEvent.setDescription("Lichess Tournament");
-                        newEvent.setSection(chessSection);
-                        return eventRepository.save(newEvent);
+        Map<Long, LichessLineDto> linesByMember = new HashMap<>();
+        if (!linesByUsername.isEmpty()) {
+            memberInfoRepository.findAllByAttributeValueIn(sectionId, usernameAttribute, linesByUsername.keySet())
+                    .forEach(row -> {
+                        LichessLineDto line = linesByUsername.remove(row.getValue());
+                        if (line != null) {
+                            line.setMemberId(row.getMemberId());
+                            linesByMember.put(row.getMemberId(), line);
+                        }
                     });
-                    */
-
-
-            while ((line = reader.readLine()) != null) {
-                String[] data = line.split(",");
-                Integer rank = Integer.valueOf(data[0]);
-                String lichessUsername = data[2];
-                Integer points = Integer.valueOf(data[4]); //TODO: Check with Luka
-
-                /*
-                Member member = memberRepository.findByLichessUsername(lichessUsername).orElse(null);
-                if (member != null) {
-                    Participation participation = new Participation();
-                    participation.setIdMember(member.getId());
-                    participation.setIdEvent(event.getId());
-                    participation.setAddPoints((long) defaultPoints);
-
-                    participationRepository.save(participation);
-                }
-                 */
-            }
         }
+        linesByUsername.values().forEach(line -> line.setReason("unknown username"));
+
+        participationService.createTournamentParticipations(sectionId, event.getId(), linesByMember,
+                (memberId, reason) -> linesByMember.get(memberId).setReason(reason));
+        return new LichessImportDto(event.getId(), lines);
     }
 }
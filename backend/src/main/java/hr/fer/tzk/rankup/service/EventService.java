@@ -9,8 +9,10 @@ import hr.fer.tzk.rankup.model.Section;
 import hr.fer.tzk.rankup.repository.EventRepository;
 import hr.fer.tzk.rankup.repository.EventTypeRepository;
 import hr.fer.tzk.rankup.repository.SectionRepository;
+import hr.fer.tzk.rankup.utils.TransactionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.Comparator;
@@ -25,15 +27,17 @@ public class EventService {
     private final SectionService sectionService;
     private final EventTypeService eventTypeService;
     private final ParticipationService participationService;
+    private final SectionVersionService sectionVersionService;
 
     @Autowired
-    public EventService(EventRepository eventRepository, SectionRepository sectionRepository, EventTypeRepository eventTypeRepository, SectionService sectionService, EventTypeService eventTypeService, ParticipationService participationService) {
+    public EventService(EventRepository eventRepository, SectionRepository sectionRepository, EventTypeRepository eventTypeRepository, SectionService sectionService, EventTypeService eventTypeService, ParticipationService participationService, SectionVersionService sectionVersionService) {
         this.eventRepository = eventRepository;
         this.sectionRepository = sectionRepository;
         this.eventTypeRepository = eventTypeRepository;
         this.sectionService = sectionService;
         this.eventTypeService = eventTypeService;
         this.participationService = participationService;
+        this.sectionVersionService = sectionVersionService;
     }
 
     public List<EventDto> findAllBySectionId(Long idSection) {
@@ -85,9 +89,15 @@ public class EventService {
         EventType eventType = eventTypeOpt.get();
 
         Event newEvent = EventMapper.fromForm(eventForm, section, eventType);
-        return eventRepository.save(newEvent);
+        newEvent = eventRepository.save(newEvent);
+        sectionVersionService.bump(idSection);
+        return newEvent;
     }
 
+    /**
+     * Updates the event and, if its points or date changed, moves the points of its participants in the same transaction.
+     */
+    @Transactional
     public Optional<Event> updateEvent(Long idSection, Long idEvent, EventForm eventForm) {
         Optional<Event> existingEvent = eventRepository.findByIdAndSection_Id(idEvent, idSection);
         Optional<Section> sectionOpt = sectionRepository.findById(idSection);
@@ -97,17 +107,28 @@ public class EventService {
             return Optional.empty();
         }
 
-        Section section = sectionOpt.get();
-        EventType eventType = eventTypeOpt.get();
-        Event newEvent = eventRepository.save(EventMapper.fromForm(eventForm, section, eventType));
+        Event event = existingEvent.get();
+        LocalDate oldDate = event.getDate();
+        int oldPoints = event.getEventType().getDefaultPoints();
+
+        Event updated = EventMapper.fromForm(eventForm, sectionOpt.get(), eventTypeOpt.get());
+        updated.setId(event.getId());
+        Event newEvent = eventRepository.save(updated);
+        participationService.rescoreEvent(idSection, idEvent, oldDate, oldPoints, newEvent.getDate(), newEvent.getEventType().getDefaultPoints());
+        TransactionUtils.afterCommit(() -> sectionVersionService.bump(idSection));
         return Optional.of(newEvent);
     }
 
+    /**
+     * Deletes the event together with its participations, taking their points back, in one transaction.
+     */
+    @Transactional
     public boolean deleteEvent(Long idSection, Long idEvent) {
         Optional<Event> event = eventRepository.findByIdAndSection_Id(idEvent, idSection);
         if (event.isPresent()) {
-            eventRepository.deleteById(idEvent);
             participationService.deleteAllParticipationsByEventId(idSection, idEvent);
+            eventRepository.deleteById(idEvent);
+            TransactionUtils.afterCommit(() -> sectionVersionService.bump(idSection));
             return true;
         }
         return false;
@@ -9,6 +9,7 @@ import hr.fer.tzk.rankup.repository.EventTypeRepository;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -18,9 +19,13 @@ import java.util.Optional;
 @Service
 public class EventTypeService {
     private final EventTypeRepository eventTypeRepository;
+    private final SectionVersionService sectionVersionService;
+    private final ParticipationService participationService;
 
-    public EventTypeService(EventTypeRepository eventTypeRepository) {
+    public EventTypeService(EventTypeRepository eventTypeRepository, SectionVersionService sectionVersionService, ParticipationService participationService) {
         this.eventTypeRepository = eventTypeRepository;
+        this.sectionVersionService = sectionVersionService;
+        this.participationService = participationService;
     }
 
     public List<EventType> findAll() {
@@ -44,12 +49,20 @@ public class EventTypeService {
         return ResponseEntity.status(HttpStatus.CREATED).location(location).build();
     }
 
+    /**
+     * Updates the event type and, if its default points changed, re-scores everyone who participated in its events
+     * in the same transaction.
+     */
+    @Transactional
     public ResponseEntity<Void> updateEventType(Long id, EventTypeForm eventTypeForm) {
         if (eventTypeRepository.existsById(id)) {
             EventType eventType = eventTypeRepository.findById(id).get();
+            int oldPoints = eventType.getDefaultPoints();
             eventType.setName(eventTypeForm.getName());
             eventType.setDefaultPoints(eventTypeForm.getDefaultPoints());
             eventTypeRepository.save(eventType);
+            participationService.rescoreEventType(id, oldPoints, eventType.getDefaultPoints());
+            sectionVersionService.bumpAll();
 
             return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
         }
@@ -61,6 +74,7 @@ public class EventTypeService {
         Optional<EventType> eventType = eventTypeRepository.findById(id);
         if (eventType.isPresent()) {
             eventTypeRepository.deleteById(id);
+            sectionVersionService.bumpAll();
             return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
         }
 
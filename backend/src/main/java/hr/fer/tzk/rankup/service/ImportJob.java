@@ -0,0 +1,95 @@
+package hr.fer.tzk.rankup.service;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * State of one asynchronous file import. Updated by the import thread and read by request threads.
+ */
+public class ImportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String type;
+    private final String contentHash;
+    private final Instant createdAt = Instant.now();
+    private final AtomicInteger processed = new AtomicInteger();
+    private volatile int total;
+    private volatile Status status = Status.QUEUED;
+    private volatile Object result;
+    private volatile String error;
+    private volatile Instant finishedAt;
+
+    public ImportJob(String type, String contentHash) {
+        this.type = type;
+        this.contentHash = contentHash;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public void advance(int count) {
+        processed.addAndGet(count);
+    }
+
+    void start() {
+        status = Status.RUNNING;
+    }
+
+    void succeed(Object result) {
+        this.result = result;
+        finishedAt = Instant.now();
+        status = Status.SUCCEEDED;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getProcessed() {
+        return processed.get();
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Object getResult() {
+        return result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+}
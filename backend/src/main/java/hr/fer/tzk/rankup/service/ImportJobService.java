@@ -0,0 +1,145 @@
+package hr.fer.tzk.rankup.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs file imports in the background, so uploads return right away with a job that can be polled.
+ *
+ * <p>
+ * The upload is copied to a temporary file and hashed together with the import type and scope (e.g. section and
+ * event). Uploading the same content for the same scope again returns the existing job instead of importing twice,
+ * unless that job failed. Jobs run on a bounded pool; when its queue is full, {@link RejectedExecutionException}
+ * is thrown. Finished jobs are kept in memory for {@code rankup.imports.retention-hours}.
+ * </p>
+ */
+@Service
+public class ImportJobService {
+
+    /**
+     * Work of one import. Reads the uploaded content from {@code file} and reports progress on {@code job}.
+     */
+    @FunctionalInterface
+    public interface ImportTask {
+        Object run(Path file, ImportJob job) throws Exception;
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final Duration retention;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, ImportJob> jobsByHash = new ConcurrentHashMap<>();
+
+    public ImportJobService(@Value("${rankup.imports.threads:2}") int threads,
+                            @Value("${rankup.imports.queue-capacity:20}") int queueCapacity,
+                            @Value("${rankup.imports.retention-hours:24}") long retentionHours) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "import-" + threadNumber.incrementAndGet()));
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    /**
+     * Starts an import of the uploaded file, or returns the job that already imported the same content.
+     *
+     * @param type kind of import, e.g. {@code participations}.
+     * @param scope parameters the import depends on, e.g. section and event IDs.
+     * @param file uploaded file.
+     * @param task work of the import.
+     * @return new or existing job
+     * @throws IOException if the upload cannot be read.
+     * @throws RejectedExecutionException if too many imports are waiting.
+     */
+    public ImportJob submit(String type, String scope, MultipartFile file, ImportTask task) throws IOException {
+        Path path = Files.createTempFile("import-", ".upload");
+        String hash;
+        try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest(type, scope))) {
+            Files.copy(inputStream, path, StandardCopyOption.REPLACE_EXISTING);
+            hash = HexFormat.of().formatHex(((DigestInputStream) inputStream).getMessageDigest().digest());
+        } catch (IOException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+
+        ImportJob candidate = new ImportJob(type, hash);
+        ImportJob job = jobsByHash.compute(hash, (key, existing) ->
+                existing != null && existing.getStatus() != ImportJob.Status.FAILED ? existing : candidate);
+        if (job != candidate) {
+            Files.deleteIfExists(path);
+            return job;
+        }
+
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, path, task));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            jobsByHash.remove(hash, job);
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<ImportJob> findJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    @Scheduled(fixedDelayString = "${rankup.imports.cleanup-ms:3600000}")
+    public void removeFinishedJobs() {
+        Instant threshold = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(threshold));
+        jobsByHash.values().removeIf(job -> !jobs.containsKey(job.getId()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static void run(ImportJob job, Path path, ImportTask task) {
+        job.start();
+        try {
+            job.succeed(task.run(path, job));
+        } catch (Exception e) {
+            job.fail(e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // Temporary directory is cleaned by the system.
+            }
+        }
+    }
+
+    private static MessageDigest digest(String type, String scope) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((type + '\n' + scope + '\n').getBytes(StandardCharsets.UTF_8));
+            return digest;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,7 +1,113 @@
 package hr.fer.tzk.rankup.service;
 
+import hr.fer.tzk.rankup.dto.LeaderboardDto;
+import hr.fer.tzk.rankup.dto.ScoreboardDto;
+import hr.fer.tzk.rankup.model.Section;
+import hr.fer.tzk.rankup.repository.SectionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.*;
+
+/**
+ * Faculty-wide leaderboard. A member's score is the sum of their total points in every section,
+ * each multiplied by the section's weight (1 unless given otherwise).
+ *
+ * <p>
+ * The top {@code limit} members are found by merging the per-section rankings of {@link ScoreboardIndexService},
+ * which are already sorted by points, with the threshold algorithm: rankings are read from the top in batches,
+ * the score of every newly seen member is completed by point lookups in the other rankings, and reading stops as
+ * soon as no unseen member can beat the current top {@code limit}. No {@code SectionMember} rows are read
+ * once the rankings are loaded.
+ * </p>
+ */
 @Service
 public class LeaderboardService {
+
+    private final ScoreboardIndexService scoreboardIndexService;
+    private final SectionRepository sectionRepository;
+
+    @Autowired
+    public LeaderboardService(ScoreboardIndexService scoreboardIndexService, SectionRepository sectionRepository) {
+        this.scoreboardIndexService = scoreboardIndexService;
+        this.sectionRepository = sectionRepository;
+    }
+
+    /**
+     * Returns the top {@code limit} members ordered by weighted score (descending) and member ID (ascending).
+     *
+     * @param limit maximum number of members to return.
+     * @param weights weight of a section by its ID, sections that are not listed have weight 1 and
+     *                sections with weight 0 are left out. Weights must not be negative.
+     */
+    public List<LeaderboardDto> getLeaderboard(int limit, Map<Long, Double> weights) {
+        List<WeightedRanking> rankings = new ArrayList<>();
+        for (Section section : sectionRepository.findAll()) {
+            double weight = weights.getOrDefault(section.getId(), 1.0);
+            if (weight > 0) {
+                rankings.add(new WeightedRanking(scoreboardIndexService.getTotalRanking(section.getId()), weight));
+            }
+        }
+
+        Comparator<Entry> order = Comparator.comparingDouble(Entry::score).reversed().thenComparing(Entry::idMember);
+        // Worst entry of the current top on the head, so it can be replaced in O(log limit).
+        PriorityQueue<Entry> top = new PriorityQueue<>(order.reversed());
+        Set<Long> seen = new HashSet<>();
+        int[] read = new int[rankings.size()];
+
+        while (true) {
+            double threshold = 0;
+            boolean exhausted = true;
+            for (int i = 0; i < rankings.size(); i++) {
+                List<ScoreboardDto> rows = rankings.get(i).ranking().slice(read[i], limit);
+                read[i] += rows.size();
+                if (rows.isEmpty()) {
+                    continue;
+                }
+                exhausted = false;
+
+                for (ScoreboardDto row : rows) {
+                    if (seen.add(row.getMemberId())) {
+                        offer(top, new Entry(row.getMemberId(), row.getFirstName(), row.getLastName(), score(rankings, row.getMemberId())), limit, order);
+                    }
+                }
+                // Members not read yet have at most as many points as the last row read from this ranking.
+                threshold += rankings.get(i).weight() * rows.get(rows.size() - 1).getPoints();
+            }
+
+            if (exhausted || (top.size() == limit && top.peek().score() > threshold)) {
+                break;
+            }
+        }
+
+        boolean integral = rankings.stream().allMatch(ranking -> ranking.weight() == Math.rint(ranking.weight()));
+        return top.stream()
+                .sorted(order)
+                .map(entry -> new LeaderboardDto(entry.idMember(), entry.firstName(), entry.lastName(),
+                        integral ? (Number) (int) entry.score() : (Number) (float) entry.score()))
+                .toList();
+    }
+
+    private static double score(List<WeightedRanking> rankings, Long idMember) {
+        double score = 0;
+        for (WeightedRanking ranking : rankings) {
+            score += ranking.weight() * ranking.ranking().pointsOf(idMember);
+        }
+        return score;
+    }
+
+    private static void offer(PriorityQueue<Entry> top, Entry entry, int limit, Comparator<Entry> order) {
+        if (top.size() < limit) {
+            top.add(entry);
+        } else if (order.compare(entry, top.peek()) < 0) {
+            top.poll();
+            top.add(entry);
+        }
+    }
+
+    private record WeightedRanking(SectionRanking ranking, double weight) {
+    }
+
+    private record Entry(Long idMember, String firstName, String lastName, double score) {
+    }
 }
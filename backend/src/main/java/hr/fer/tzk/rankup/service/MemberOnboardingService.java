@@ -0,0 +1,148 @@
+package hr.fer.tzk.rankup.service;
+
+import hr.fer.tzk.rankup.dto.MemberImportDto;
+import hr.fer.tzk.rankup.dto.MemberLineDto;
+import hr.fer.tzk.rankup.model.Member;
+import hr.fer.tzk.rankup.model.Rank;
+import hr.fer.tzk.rankup.model.SectionSemester;
+import hr.fer.tzk.rankup.repository.MemberRepository;
+import hr.fer.tzk.rankup.repository.RankRepository;
+import hr.fer.tzk.rankup.repository.SectionMemberRepository;
+import hr.fer.tzk.rankup.repository.SectionRepository;
+import hr.fer.tzk.rankup.repository.SectionSemesterRepository;
+import hr.fer.tzk.rankup.utils.TransactionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates members from an uploaded file and adds them to a section, with set-based statements in one transaction.
+ */
+@Service
+public class MemberOnboardingService {
+
+    private static final int BATCH_SIZE = 500;
+
+    // Default password of members created from a file, until they reset it.
+    private static final String DEFAULT_SALT = "yux3DkyVdRfuzEgUUoU6vogUIC/UEhW2";
+    private static final String DEFAULT_PASSWORD_HASH = "{argon2id}$argon2id$v=19$m=65536,t=2,p=1$ZC1DBw8RN4PpNR4gSBMnSA$GvYXDiuJrxM6a8u7iBJ2e+F6+AHLqpPyYeG0ktRko+8";
+
+    private static final String INSERT_MEMBER = "INSERT INTO mymember (firstname, lastname, jmbag, email, passwordhash, salt, isverified) " +
+            "VALUES (?, ?, ?, ?, ?, ?, TRUE)";
+
+    private final MemberRepository memberRepository;
+    private final SectionRepository sectionRepository;
+    private final RankRepository rankRepository;
+    private final SectionMemberRepository sectionMemberRepository;
+    private final SectionSemesterRepository sectionSemesterRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ScoreboardIndexService scoreboardIndexService;
+    private final SectionVersionService sectionVersionService;
+
+    @Autowired
+    public MemberOnboardingService(MemberRepository memberRepository, SectionRepository sectionRepository, RankRepository rankRepository,
+                                   SectionMemberRepository sectionMemberRepository, SectionSemesterRepository sectionSemesterRepository,
+                                   JdbcTemplate jdbcTemplate, ScoreboardIndexService scoreboardIndexService, SectionVersionService sectionVersionService) {
+        this.memberRepository = memberRepository;
+        this.sectionRepository = sectionRepository;
+        this.rankRepository = rankRepository;
+        this.sectionMemberRepository = sectionMemberRepository;
+        this.sectionSemesterRepository = sectionSemesterRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.scoreboardIndexService = scoreboardIndexService;
+        this.sectionVersionService = sectionVersionService;
+    }
+
+    /**
+     * Creates members from the accepted lines and adds them to the section with the given rank.
+     *
+     * <p>
+     * Section and rank are looked up once, and JMBAGs and emails that are already registered are found with one query
+     * each; those lines are rejected with the reason. Members are inserted in JDBC batches, then section members and a
+     * row for every semester are created with one {@code INSERT ... SELECT} each. Everything runs in one transaction,
+     * so a failure leaves no partially imported members behind.
+     * </p>
+     *
+     * @param sectionId section the members join.
+     * @param rankName name of the starting rank in the section.
+     * @param lines lines read from the file; reasons and member IDs are filled in.
+     * @param progress job that is advanced as members are inserted, or {@code null}.
+     * @return report of the import
+     * @throws NoSuchElementException if the section or rank does not exist.
+     */
+    @Transactional
+    public MemberImportDto onboard(Long sectionId, String rankName, List<MemberLineDto> lines, ImportJob progress) {
+        sectionRepository.findById(sectionId).orElseThrow(() -> new NoSuchElementException("Section " + sectionId + " not found"));
+        Rank rank = rankRepository.findByNameAndSection_Id(rankName, sectionId)
+                .orElseThrow(() -> new NoSuchElementException("Rank " + rankName + " not found in section " + sectionId));
+
+        List<MemberLineDto> candidates = lines.stream().filter(line -> line.getReason() == null).toList();
+        if (!candidates.isEmpty()) {
+            rejectRegistered(candidates);
+        }
+        List<MemberLineDto> accepted = candidates.stream().filter(line -> line.getReason() == null).toList();
+        if (progress != null) {
+            progress.setTotal(accepted.size());
+        }
+        if (accepted.isEmpty()) {
+            return new MemberImportDto(sectionId, rankName, lines);
+        }
+
+        for (int from = 0; from < accepted.size(); from += BATCH_SIZE) {
+            List<MemberLineDto> batch = accepted.subList(from, Math.min(from + BATCH_SIZE, accepted.size()));
+            jdbcTemplate.batchUpdate(INSERT_MEMBER, batch, batch.size(), (statement, line) -> {
+                statement.setString(1, line.getFirstName());
+                statement.setString(2, line.getLastName());
+                statement.setString(3, line.getJmbag());
+                statement.setString(4, line.getEmail());
+                statement.setString(5, DEFAULT_PASSWORD_HASH);
+                statement.setString(6, DEFAULT_SALT);
+            });
+            if (progress != null) {
+                progress.advance(batch.size());
+            }
+        }
+
+        List<String> jmbags = accepted.stream().map(MemberLineDto::getJmbag).toList();
+        sectionMemberRepository.insertAllByJmbags(sectionId, rank.getId(), jmbags);
+        sectionSemesterRepository.insertAllByJmbags(sectionId, jmbags, SectionSemester.DEFAULT_THRESHOLD);
+
+        Map<String, Long> idsByJmbag = memberRepository.findAllByJmbagIn(jmbags).stream()
+                .collect(Collectors.toMap(Member::getJmbag, Member::getId));
+        accepted.forEach(line -> line.setMemberId(idsByJmbag.get(line.getJmbag())));
+
+        TransactionUtils.afterCommit(() -> {
+            scoreboardIndexService.invalidateSection(sectionId);
+            sectionVersionService.bump(sectionId);
+        });
+        return new MemberImportDto(sectionId, rankName, lines);
+    }
+
+    private void rejectRegistered(List<MemberLineDto> lines) {
+        Set<String> jmbags = new HashSet<>(memberRepository.findJmbagsIn(values(lines, MemberLineDto::getJmbag)));
+        List<String> emails = values(lines, MemberLineDto::getEmail);
+        Set<String> registeredEmails = emails.isEmpty() ? Set.of() : new HashSet<>(memberRepository.findEmailsIn(emails));
+
+        lines.forEach(line -> {
+            if (jmbags.contains(line.getJmbag())) {
+                line.setReason("JMBAG already registered");
+            } else if (line.getEmail() != null && registeredEmails.contains(line.getEmail())) {
+                line.setReason("email already registered");
+            }
+        });
+    }
+
+    private static List<String> values(List<MemberLineDto> lines, Function<MemberLineDto, String> getter) {
+        return lines.stream().map(getter).filter(Objects::nonNull).toList();
+    }
+}
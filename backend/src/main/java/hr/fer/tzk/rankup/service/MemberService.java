@@ -10,9 +10,7 @@ import hr.fer.tzk.rankup.utils.JmbagUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,10 +18,14 @@ import java.util.Optional;
 public class MemberService {
 
     private final MemberRepository memberRepository;
+    private final ScoreboardIndexService scoreboardIndexService;
+    private final SectionVersionService sectionVersionService;
 
     @Autowired
-    public MemberService(MemberRepository memberRepository) {
+    public MemberService(MemberRepository memberRepository, ScoreboardIndexService scoreboardIndexService, SectionVersionService sectionVersionService) {
         this.memberRepository = memberRepository;
+        this.scoreboardIndexService = scoreboardIndexService;
+        this.sectionVersionService = sectionVersionService;
     }
 
     public List<Member> findAllMembers() {
@@ -46,77 +48,26 @@ public class MemberService {
         return memberRepository.save(member);
     }
 
-    public List<Member> createMembersFromFile(MultipartFile file) throws IOException {
-        List<Member> members = readMembersFromFile(file);
-        members.forEach(member -> {
-            member.setSalt("yux3DkyVdRfuzEgUUoU6vogUIC/UEhW2");
-            member.setPasswordHash("{argon2id}$argon2id$v=19$m=65536,t=2,p=1$ZC1DBw8RN4PpNR4gSBMnSA$GvYXDiuJrxM6a8u7iBJ2e+F6+AHLqpPyYeG0ktRko+8");
-        });
-        //members.forEach(member -> System.out.println(member.getFirstName() + ' ' + member.getLastName() + ' ' + member.getJmbag() + ' ' + member.getEmail()));
-        members.forEach(memberRepository::save);
-        return members;
-    }
-
-    private List<Member> readMembersFromFile(MultipartFile file) throws IOException {
-        String type = file.getContentType();
-        //System.out.println(type);
-        //System.out.println(file.getOriginalFilename());
-        assert type != null;
-
-        List<Member> members;
-        //System.out.println("csv");
-        byte[] textBytes = file.getBytes();
-        String textString = new String(textBytes);
-        List<String> tmp = List.of(textString.split("\n"));
-
-        //System.out.println(textString);
-
-        //System.out.println();
-        //System.out.println();
-        members = tmp.stream()
-                .map(line -> {
-                    List<String> chunks = List.of(line.split(","));
-                    String firstName = chunks.get(0);
-                    String lastName = chunks.get(1);
-                    String jmbag = chunks.get(2);
-                    String email = chunks.get(3);
-
-                    // JMBAG
-                    if (jmbag.startsWith("36") || jmbag.startsWith("69") || jmbag.startsWith("62")) {
-                        jmbag = "00"+jmbag;
-                    } else if (jmbag.startsWith("246")) {
-                        jmbag = "0" + jmbag;
-                    }
-                    Member member = new Member();
-                    member.setFirstName(firstName);
-                    member.setLastName(lastName);
-                    member.setJmbag(jmbag);
-                    member.setEmail(email);
-                    member.setVerified(true);
-
-
-                    return member;
-                }).toList();
-
-        assert members != null;
-        //System.out.println(members.size());
-        return members;
-    }
-
     public Member updateMember(Member member) {
         return memberRepository.save(member);
     }
 
     public void deleteMemberById(Long id) {
         memberRepository.deleteById(id);
+        scoreboardIndexService.invalidateAll();
+        sectionVersionService.bumpAll();
     }
 
     public void deleteMemberByJmbag(String jmbag) {
         memberRepository.deleteByJmbag(jmbag);
+        scoreboardIndexService.invalidateAll();
+        sectionVersionService.bumpAll();
     }
 
     public void deleteMemberByEmail(String email) {
         memberRepository.deleteByEmail(email);
+        scoreboardIndexService.invalidateAll();
+        sectionVersionService.bumpAll();
     }
 
     public boolean isJmbagInUse(String jmbag) {
@@ -134,7 +85,10 @@ public class MemberService {
         existingMember.setLastName(member.getLastName());
         existingMember.setJmbag(member.getJmbag());
 
-        return updateMember(existingMember);
+        Member updated = updateMember(existingMember);
+        scoreboardIndexService.invalidateAll();
+        sectionVersionService.bumpAll();
+        return updated;
     }
 
 
@@ -1,37 +1,68 @@
 package hr.fer.tzk.rankup.service;
 
+import hr.fer.tzk.rankup.dto.LichessLineDto;
+import hr.fer.tzk.rankup.dto.PassedThresholdRow;
+import hr.fer.tzk.rankup.dto.PointsDriftDto;
+import hr.fer.tzk.rankup.dto.PointsDriftRow;
+import hr.fer.tzk.rankup.dto.PointsRecalculationDto;
+import hr.fer.tzk.rankup.dto.RosterLineDto;
+import hr.fer.tzk.rankup.dto.RosterReportDto;
 import hr.fer.tzk.rankup.form.SingleParticipationForm;
 import hr.fer.tzk.rankup.model.*;
 import hr.fer.tzk.rankup.repository.EventRepository;
 import hr.fer.tzk.rankup.repository.MemberRepository;
 import hr.fer.tzk.rankup.repository.ParticipationRepository;
+import hr.fer.tzk.rankup.utils.CsvUtils;
 import hr.fer.tzk.rankup.utils.JmbagUtils;
+import hr.fer.tzk.rankup.utils.TransactionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
+import java.io.Writer;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ParticipationService {
+    private static final String INSERT_RESULT = "INSERT INTO participation (addpoints, placement, score, idmember, idevent) " +
+            "VALUES (0, ?, ?, ?, ?)";
+
     private final ParticipationRepository participationRepository;
     private final MemberRepository memberRepository;
     private final EventRepository eventRepository;
     private final SectionMemberService sectionMemberService;
     private final SectionSemesterService sectionSemesterService;
     private final SemesterService semesterService;
+    private final ScoreboardIndexService scoreboardIndexService;
+    private final SectionVersionService sectionVersionService;
+    private final ScoreboardStreamService scoreboardStreamService;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Points of inserted and deleted participations are applied by database triggers, see PointsTriggerInitializer.
+    private final boolean pointsTriggerEnabled;
 
     @Autowired
-    public ParticipationService(ParticipationRepository participationRepository, MemberRepository memberRepository, EventRepository eventRepository, SectionMemberService sectionMemberService, SemesterService semesterService, SectionSemesterService sectionSemesterService) {
+    public ParticipationService(ParticipationRepository participationRepository, MemberRepository memberRepository, EventRepository eventRepository, SectionMemberService sectionMemberService, SemesterService semesterService, SectionSemesterService sectionSemesterService, ScoreboardIndexService scoreboardIndexService, SectionVersionService sectionVersionService, ScoreboardStreamService scoreboardStreamService, JdbcTemplate jdbcTemplate,
+                                @Value("${rankup.points.trigger-enabled:false}") boolean pointsTriggerEnabled) {
         this.participationRepository = participationRepository;
         this.eventRepository = eventRepository;
         this.memberRepository = memberRepository;
         this.sectionMemberService = sectionMemberService;
         this.semesterService = semesterService;
         this.sectionSemesterService = sectionSemesterService;
+        this.scoreboardIndexService = scoreboardIndexService;
+        this.sectionVersionService = sectionVersionService;
+        this.scoreboardStreamService = scoreboardStreamService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.pointsTriggerEnabled = pointsTriggerEnabled;
     }
 
     public List<Participation> findAllParticipations() {
@@ -50,93 +81,167 @@ public class ParticipationService {
         return participationRepository.findById(participationId).orElse(null);
     }
 
-    public List<Member> findAllWhoPassedThreshold(Long threshold, Long sectionId, Long semesterId) {
+    /**
+     * Returns section members whose points in the semester reach the threshold, computed with one grouped query.
+     * Points include participation bonus points and the points modifier of the member's rank.
+     */
+    public List<PassedThresholdRow> findAllWhoPassedThreshold(Long threshold, Long sectionId, Long semesterId) {
         Semester semester = semesterService.findSemesterById(semesterId).orElseThrow();
-        List<Member> members = sectionMemberService.findAllSectionMembersByIdSection(sectionId).stream().map(SectionMember::getMember).toList();
-        members = members.stream()
-                .filter(member -> {
-                    Integer count = findAllParticipationsByMemberId(member.getId())
-                            .stream()
-                            .filter(participation -> participation.getEvent().getDate().isAfter(semester.getDateFrom())
-                                    && participation.getEvent().getDate().isBefore(semester.getDateTo())
-                                    && participation.getEvent().getSection().getId().equals(sectionId)
-                            )
-                            .map(participation -> participation.getEvent().getEventType().getDefaultPoints())
-                            .reduce(0, Integer::sum);
-                    return count >= threshold;
-                })
-                .toList();
-        return members;
+        return participationRepository.findAllWhoPassedThreshold(sectionId, semester.getId(), threshold);
     }
 
-
+    /**
+     * Writes section members whose points in the semester reach the threshold as CSV, streaming rows from the
+     * database instead of loading them all.
+     */
+    @Transactional(readOnly = true)
+    public void writeWhoPassedThresholdCsv(Long threshold, Long sectionId, Long semesterId, Writer writer) throws IOException {
+        Semester semester = semesterService.findSemesterById(semesterId).orElseThrow();
+        try (Stream<PassedThresholdRow> rows = participationRepository.streamAllWhoPassedThreshold(sectionId, semester.getId(), threshold)) {
+            writer.write(CsvUtils.BOM);
+            CsvUtils.writeRow(writer, "JMBAG", "Prezime", "Ime", "Email", "Bodovi");
+            Iterator<PassedThresholdRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                PassedThresholdRow row = iterator.next();
+                CsvUtils.writeRow(writer, row.getJmbag(), row.getLastName(), row.getFirstName(), row.getEmail(), row.getPoints());
+            }
+        }
+        writer.flush();
+    }
 
     public Participation createParticipation(Participation participation) {
         return participationRepository.save(participation);
     }
 
+    /**
+     * Creates a participation and adds the event's points to the member with atomic {@code points = points + delta}
+     * updates, so concurrent changes of the same member are never lost.
+     */
+    @Transactional
     public Participation createParticipation(Long sectionId, SingleParticipationForm form) {
         Member member = memberRepository.findById(form.getMemberId()).orElseThrow();
         Event event = eventRepository.findById(form.getEventId()).orElseThrow();
-
-        SectionMember sectionMember = sectionMemberService.findSectionMemberByIdSection(member.getId(),sectionId).orElseThrow();
-        sectionMember.setPointsAll(sectionMember.getPointsAll() + event.getEventType().getDefaultPoints());
-
         Semester semester = semesterService.findSemesterByDate(event.getDate()).orElseThrow();
-        SectionSemester sectionSemester = sectionSemesterService.findSectionSemesterByAlterKey(member.getId(),sectionId,semester.getId()).orElseThrow();
-        sectionSemester.setPoints(sectionSemester.getPoints() + event.getEventType().getDefaultPoints());
+        int points = event.getEventType().getDefaultPoints();
 
         Participation participation = new Participation();
         participation.setMember(member);
         participation.setEvent(event);
         participation = participationRepository.save(participation);
-        sectionSemesterService.update(sectionSemester);
-        sectionMemberService.update(sectionMember);
+        addPoints(sectionId, member.getId(), semester, points);
 
-        return participationRepository.save(participation);
+        return participation;
+    }
+
+    /**
+     * Creates participations in the event for all members accepted in the roster, as a set-based batch in one transaction.
+     *
+     * <p>
+     * JMBAGs are resolved with one {@code IN} query. Members that are unknown, not in the section or already
+     * participating in the event are skipped and their roster lines are marked as rejected.
+     * </p>
+     */
+    @Transactional
+    public List<Participation> createMultipleParticipations(Long sectionId, Long eventId, RosterReportDto roster) {
+        Map<String, RosterLineDto> linesByJmbag = new HashMap<>();
+        roster.getAcceptedLines().forEach(line -> linesByJmbag.put(line.getJmbag(), line));
+        if (linesByJmbag.isEmpty()) {
+            eventRepository.findById(eventId).orElseThrow();
+            return List.of();
+        }
+
+        Map<Long, RosterLineDto> linesByMember = new HashMap<>();
+        memberRepository.findAllByJmbagIn(linesByJmbag.keySet())
+                .forEach(member -> linesByMember.put(member.getId(), linesByJmbag.remove(member.getJmbag())));
+        linesByJmbag.values().forEach(line -> line.setReason("unknown member"));
+
+        Set<Long> newMemberIds = createParticipations(sectionId, eventId, linesByMember.keySet(),
+                (memberId, reason) -> linesByMember.get(memberId).setReason(reason));
+        if (newMemberIds.isEmpty()) {
+            return List.of();
+        }
+        return participationRepository.findAllByEventIdAndMemberIdIn(eventId, newMemberIds);
     }
 
-    public List<Participation> createMultipleParticipations(Long sectionId, Long eventId, MultipartFile file) throws IOException {
-        List<String> jmbags = readJmbagsFromFile(file);
+    /**
+     * Creates participations of the given members in the event, as a set-based batch in one transaction.
+     *
+     * <p>
+     * Members that are not in the section or already participate in the event are skipped and passed to
+     * {@code rejected} with the reason. Participations are written with a single insert, and points are added with
+     * one update of section members and one of section semesters. The ranking index is updated once the transaction
+     * commits.
+     * </p>
+     *
+     * @return IDs of members whose participation was created
+     */
+    @Transactional
+    public Set<Long> createParticipations(Long sectionId, Long eventId, Collection<Long> memberIds, BiConsumer<Long, String> rejected) {
+        return createParticipations(sectionId, eventId, memberIds, rejected,
+                newMemberIds -> participationRepository.insertAll(eventId, newMemberIds));
+    }
+
+    /**
+     * Creates participations of members in a tournament event like {@link #createParticipations}, storing each
+     * member's placement and score with the participation. The rows are written with one batched insert.
+     *
+     * @param results tournament result of each member, by member ID.
+     * @return IDs of members whose participation was created
+     */
+    @Transactional
+    public Set<Long> createTournamentParticipations(Long sectionId, Long eventId, Map<Long, LichessLineDto> results,
+                                                    BiConsumer<Long, String> rejected) {
+        return createParticipations(sectionId, eventId, results.keySet(), rejected, newMemberIds -> {
+            List<LichessLineDto> batch = newMemberIds.stream().map(results::get).toList();
+            jdbcTemplate.batchUpdate(INSERT_RESULT, batch, batch.size(), (statement, line) -> {
+                statement.setObject(1, line.getPlacement(), Types.INTEGER);
+                statement.setObject(2, line.getScore(), Types.INTEGER);
+                statement.setLong(3, line.getMemberId());
+                statement.setLong(4, eventId);
+            });
+        });
+    }
+
+    private Set<Long> createParticipations(Long sectionId, Long eventId, Collection<Long> memberIds, BiConsumer<Long, String> rejected,
+                                           Consumer<Set<Long>> insert) {
         Event event = eventRepository.findById(eventId).orElseThrow();
+        if (memberIds.isEmpty()) {
+            return Set.of();
+        }
 
-        List<Participation> participations = jmbags.stream()
-                .map(jmbag-> memberRepository.findByJmbag(jmbag.strip()).orElse(null))
-                .filter(Objects::nonNull)
-                .map(member -> {
-                    Participation participation = new Participation();
-                    participation.setEvent(event);
-                    participation.setMember(member);
-                    return participation;
-                }).toList();
-
-        List<String> tmpJmbags = new ArrayList<>();
-        participations = participations.stream().filter(participation -> {
-
-            boolean contains = tmpJmbags.contains(participation.getMember().getJmbag());
-            if (!contains) {
-                tmpJmbags.add(participation.getMember().getJmbag());
-                return true;
+        Set<Long> newMemberIds = new HashSet<>(sectionMemberService.findMemberIdsInSection(sectionId, memberIds));
+        memberIds.forEach(memberId -> {
+            if (!newMemberIds.contains(memberId)) {
+                rejected.accept(memberId, "not a member of the section");
             }
-            return false;
-        }).toList();
-        participations.forEach(participation -> {
-            SectionMember sectionMember = sectionMemberService.findSectionMemberByIdSection(participation.getMember().getId(), sectionId).orElseThrow();
-            sectionMember.setPointsAll(sectionMember.getPointsAll() + event.getEventType().getDefaultPoints());
-
-            Semester semester = semesterService.findSemesterByDate(event.getDate()).orElseThrow();
-            SectionSemester sectionSemester = sectionSemesterService.findSectionSemesterByAlterKey(participation.getMember().getId(),sectionId,semester.getId()).orElseThrow();
-            sectionSemester.setPoints(sectionSemester.getPoints() + event.getEventType().getDefaultPoints());
-
-            participationRepository.save(participation);
-            sectionMemberService.update(sectionMember);
-            sectionSemesterService.update(sectionSemester);
         });
+        participationRepository.findMemberIdsByEventId(eventId).forEach(memberId -> {
+            if (newMemberIds.remove(memberId)) {
+                rejected.accept(memberId, "already participates");
+            }
+        });
+        if (newMemberIds.isEmpty()) {
+            return newMemberIds;
+        }
 
-        return participations;
-    }
-
+        Semester semester = semesterService.findSemesterByDate(event.getDate()).orElseThrow();
+        int points = event.getEventType().getDefaultPoints();
+        insert.accept(newMemberIds);
+        if (!pointsTriggerEnabled) {
+            sectionMemberService.addPoints(sectionId, newMemberIds, points);
+            sectionSemesterService.addPoints(sectionId, semester.getId(), newMemberIds, points);
+        }
 
+        scoreboardIndexService.holdUntilApplied(sectionId);
+        TransactionUtils.afterCommit(() -> {
+            newMemberIds.forEach(memberId -> {
+                scoreboardIndexService.applyDelta(sectionId, memberId, semester, points);
+                scoreboardStreamService.markChanged(sectionId, memberId);
+            });
+            sectionVersionService.bump(sectionId);
+        });
+        return newMemberIds;
+    }
 
     public Participation updateParticipation(Participation participation) {
         return participationRepository.save(participation);
@@ -146,103 +251,203 @@ public class ParticipationService {
         participationRepository.delete(participation);
         return participation;
     }
+    /**
+     * Deletes a participation and takes the event's points away from the member with atomic updates.
+     */
+    @Transactional
     public Participation deleteParticipationById(Long sectionId, Long participationId) {
         Participation participation = participationRepository.findById(participationId).orElseThrow();
-
-        SectionMember sectionMember = sectionMemberService.findSectionMemberByIdSection(participation.getMember().getId(), sectionId).orElseThrow();
-        sectionMember.setPointsAll(sectionMember.getPointsAll() - participation.getEvent().getEventType().getDefaultPoints());
-
         Semester semester = semesterService.findSemesterByDate(participation.getEvent().getDate()).orElseThrow();
-        SectionSemester sectionSemester = sectionSemesterService.findSectionSemesterByAlterKey(participation.getMember().getId(), sectionId, semester.getId()).orElseThrow();
-        sectionSemester.setPoints(sectionSemester.getPoints() - participation.getEvent().getEventType().getDefaultPoints());
 
         participationRepository.deleteById(participationId);
-        sectionMemberService.update(sectionMember);
-        sectionSemesterService.update(sectionSemester);
-
+        addPoints(sectionId, participation.getMember().getId(), semester, -participation.getEvent().getEventType().getDefaultPoints());
 
         return participation;
     }
+
+    @Transactional
     public Participation deleteParticipationByEventIdAndMemberId(Long sectionId, Long eventId, Long memberId) {
         Participation participation = participationRepository.findByEvent_IdAndMember_Id(eventId, memberId);
         return deleteParticipationById(sectionId, participation.getIdParticipation());
     }
-    public List<Participation> deleteAllParticipationsByEventId(Long sectionId, Long eventId) {
-        List<Participation> participations = participationRepository.findAllByEvent_Id(eventId);
-        participations.forEach(participation -> deleteParticipationById(sectionId, participation.getIdParticipation()));
-        return participations;
-    }
-
-    private List<String> readJmbagsFromFile(MultipartFile file) throws IOException {
-        String type = file.getContentType();
-        assert type != null;
-
-        List<String> jmbags = null;
-        if (type.equals("application/octet-stream") || type.equals("text/plain")) {
-            byte[] textBytes = file.getBytes();
-            String textString = new String(textBytes);
-            jmbags = List.of(textString.split("\n"));
-        } else if (type.equals("text/csv")) {
-            byte[] textBytes = file.getBytes();
-            String textString = new String(textBytes);
-            List<String> tmp = List.of(textString.split("\n"));
-
-            jmbags = tmp.stream()
-                    .map(line -> {
-                        List<String> chunks = List.of(line.split(","));
-                        String jmbag = null;
-                        for (String chunk: chunks) {
-                            if (chunk.contains("0036") || chunk.contains("0069") || chunk.contains("0062")  || chunk.contains("0246")) {
-                                jmbag = chunk;
-                            } else if (chunk.startsWith("36") || chunk.startsWith("69") || chunk.startsWith("62")) {
-                                jmbag = "00"+chunk;
-                            } else if (chunk.startsWith("246")) {
-                                jmbag = "0" + chunk;
-                            }
-                        }
-                        return jmbag;
-                    }).toList();
-        }
-
-        assert jmbags != null;
-        return jmbags;
-    }
-
-    public List<SectionSemester> getPointsAllMembers(Long semesterId, Long sectionId) {
-        Semester semester = semesterService.findSemesterById(semesterId).orElseThrow();
-        List<SectionMember> sectionMembers = sectionMemberService.findAllSectionMembersByIdSection(sectionId);
-        List<Member> members = sectionMembers.stream().map(SectionMember::getMember).toList();
-        members.forEach(member-> {
-            SectionMember sectionMember = sectionMemberService.findSectionMemberByIdSection(member.getId(), sectionId).orElseThrow();
-            SectionSemester sectionSemester = sectionSemesterService.findSectionSemesterByAlterKey(member.getId(), sectionId, semesterId).orElse(null);
-            if (sectionSemester!=null && sectionMember != null) {
-                sectionSemester.setPoints(getPointsByMemberBySemester(sectionId, member.getId(), semester));
-                sectionMember.setPointsAll(getPointsAllByMember(sectionId, member.getId()));
-                sectionSemesterService.update(sectionSemester);
+    /**
+     * Deletes all participations in the event and takes the event's points away from every participant.
+     *
+     * <p>
+     * Points are reversed with one update of section members and one of section semesters, and participations
+     * are removed with one delete, all in one transaction. The ranking index is updated once the transaction commits.
+     * </p>
+     *
+     * @return number of deleted participations
+     */
+    @Transactional
+    public int deleteAllParticipationsByEventId(Long sectionId, Long eventId) {
+        Event event = eventRepository.findById(eventId).orElseThrow();
+        List<Long> memberIds = participationRepository.findMemberIdsByEventId(eventId);
+        if (memberIds.isEmpty()) {
+            return 0;
+        }
+
+        int points = event.getEventType().getDefaultPoints();
+        Optional<Semester> semester = semesterService.findSemesterByDate(event.getDate());
+        if (!pointsTriggerEnabled) {
+            sectionMemberService.addPointsToParticipants(sectionId, eventId, -points);
+            semester.ifPresent(value -> sectionSemesterService.addPointsToParticipants(sectionId, value.getId(), eventId, -points));
+        }
+        int deleted = participationRepository.deleteAllByEventId(eventId);
+
+        scoreboardIndexService.holdUntilApplied(sectionId);
+        TransactionUtils.afterCommit(() -> {
+            if (semester.isPresent()) {
+                memberIds.forEach(memberId -> scoreboardIndexService.applyDelta(sectionId, memberId, semester.get(), -points));
+            } else {
+                scoreboardIndexService.invalidateSection(sectionId);
             }
+            memberIds.forEach(memberId -> scoreboardStreamService.markChanged(sectionId, memberId));
+            sectionVersionService.bump(sectionId);
+        });
+        return deleted;
+    }
+
+    /**
+     * Adds points to the member's total and semester points in the database, and to the ranking index once the
+     * transaction commits. Throws {@link NoSuchElementException} if the member is not in the section or semester,
+     * which rolls the transaction back.
+     */
+    private void addPoints(Long sectionId, Long memberId, Semester semester, int points) {
+        List<Long> memberIds = List.of(memberId);
+        if (pointsTriggerEnabled) {
+            // The trigger has already updated the database, only check the member is in the section.
+            if (sectionMemberService.findMemberIdsInSection(sectionId, memberIds).isEmpty()) {
+                throw new NoSuchElementException("Member " + memberId + " is not in section " + sectionId);
+            }
+        } else if (sectionMemberService.addPoints(sectionId, memberIds, points) == 0
+                || sectionSemesterService.addPoints(sectionId, semester.getId(), memberIds, points) == 0) {
+            throw new NoSuchElementException("Member " + memberId + " is not in section " + sectionId + " in semester " + semester.getId());
+        }
 
+        scoreboardIndexService.holdUntilApplied(sectionId);
+        TransactionUtils.afterCommit(() -> {
+            scoreboardIndexService.applyDelta(sectionId, memberId, semester, points);
+            scoreboardStreamService.markChanged(sectionId, memberId);
+            sectionVersionService.bump(sectionId);
         });
-        return null;
     }
 
-    private Integer getPointsByMemberBySemester(Long sectionId, Long memberId, Semester semester) {
-        List<Participation> participations = participationRepository.findAllByMember_Id(memberId);
-        List<Event> participatedEvents = participations.stream().map(Participation::getEvent).toList();
-        return participatedEvents.stream()
-                .filter(event -> event.getDate().isAfter(semester.getDateFrom()) && event.getDate().isBefore(semester.getDateTo()))
-                .filter(event -> event.getSection().getId().equals(sectionId))
-                .map(event -> event.getEventType().getDefaultPoints())
-                .reduce(Integer::sum).orElse(0);
+    /**
+     * Moves points of the event's participants after the event's points or date changed. Total points change by the
+     * difference in points; semester points are taken away from the old semester and added to the new one. Only
+     * participants of the event are touched, with one update per affected table.
+     */
+    @Transactional
+    public void rescoreEvent(Long sectionId, Long eventId, LocalDate oldDate, int oldPoints, LocalDate newDate, int newPoints) {
+        Optional<Semester> oldSemester = semesterService.findSemesterByDate(oldDate);
+        Optional<Semester> newSemester = semesterService.findSemesterByDate(newDate);
+        boolean sameSemester = oldSemester.map(Semester::getId).equals(newSemester.map(Semester::getId));
+        if (oldPoints == newPoints && sameSemester) {
+            return;
+        }
+
+        List<Long> memberIds = participationRepository.findMemberIdsByEventId(eventId);
+        if (memberIds.isEmpty()) {
+            return;
+        }
+
+        int delta = newPoints - oldPoints;
+        if (delta != 0) {
+            sectionMemberService.addPointsToParticipants(sectionId, eventId, delta);
+        }
+        if (sameSemester) {
+            newSemester.ifPresent(semester -> sectionSemesterService.addPointsToParticipants(sectionId, semester.getId(), eventId, delta));
+        } else {
+            oldSemester.ifPresent(semester -> sectionSemesterService.addPointsToParticipants(sectionId, semester.getId(), eventId, -oldPoints));
+            newSemester.ifPresent(semester -> sectionSemesterService.addPointsToParticipants(sectionId, semester.getId(), eventId, newPoints));
+        }
+
+        scoreboardIndexService.holdUntilApplied(sectionId);
+        TransactionUtils.afterCommit(() -> {
+            if (sameSemester && newSemester.isPresent()) {
+                memberIds.forEach(memberId -> scoreboardIndexService.applyDelta(sectionId, memberId, newSemester.get(), delta));
+            } else {
+                // Points moved between semesters, reload the section's rankings.
+                scoreboardIndexService.invalidateSection(sectionId);
+            }
+            memberIds.forEach(memberId -> scoreboardStreamService.markChanged(sectionId, memberId));
+            sectionVersionService.bump(sectionId);
+        });
+    }
+
+    /**
+     * Applies a change of the event type's default points to everyone who participated in events of that type,
+     * with one update per affected table. Rankings of all sections are reloaded after commit.
+     */
+    @Transactional
+    public void rescoreEventType(Long eventTypeId, int oldPoints, int newPoints) {
+        int delta = newPoints - oldPoints;
+        if (delta == 0) {
+            return;
+        }
+
+        int changed = sectionMemberService.addPointsPerParticipationInEventType(eventTypeId, delta);
+        sectionSemesterService.addPointsPerParticipationInEventType(eventTypeId, delta);
+        if (changed > 0) {
+            TransactionUtils.afterCommit(() -> {
+                scoreboardIndexService.invalidateAll();
+                sectionVersionService.bumpAll();
+            });
+        }
     }
 
-    private Integer getPointsAllByMember(Long sectionId, Long memberId) {
-        List<Participation> participations = participationRepository.findAllByMember_Id(memberId);
-        return participations.stream()
-                .map(Participation::getEvent)
-                .filter(event -> event.getSection().getId().equals(sectionId))
-                .map(Event::getEventType)
-                .map(EventType::getDefaultPoints)
-                .reduce(Integer::sum).orElse(0);
+    /**
+     * Recomputes points of a section from its participations and reports where stored points drifted.
+     *
+     * <p>
+     * Total points of section members and semester points of the given semester (or of every semester if
+     * {@code semesterId} is {@code null}) are each computed with one aggregate query. Unless {@code dryRun} is set,
+     * drifted rows are corrected with one update per table and the section's rankings are reloaded after commit.
+     * </p>
+     *
+     * @param sectionId ID of the section.
+     * @param semesterId ID of the semester to check, or {@code null} for all semesters.
+     * @param dryRun if {@code true}, only reports drift without changing stored points.
+     * @return drift report, one row per drifted total or semester points
+     */
+    @Transactional
+    public PointsRecalculationDto recalculatePoints(Long sectionId, Long semesterId, boolean dryRun) {
+        List<Long> semesterIds = semesterId != null
+                ? List.of(semesterService.findSemesterById(semesterId).orElseThrow().getId())
+                : semesterService.findAllSemesters().stream().map(Semester::getId).toList();
+
+        List<PointsDriftRow> totalDrift = sectionMemberService.findPointsDrift(sectionId);
+        List<PointsDriftRow> semesterDrift = semesterIds.isEmpty()
+                ? List.of()
+                : sectionSemesterService.findPointsDrift(sectionId, semesterIds);
+
+        if (!dryRun && (!totalDrift.isEmpty() || !semesterDrift.isEmpty())) {
+            if (!totalDrift.isEmpty()) {
+                sectionMemberService.recalculatePoints(totalDrift.stream().map(PointsDriftRow::getId).toList());
+            }
+            if (!semesterDrift.isEmpty()) {
+                sectionSemesterService.recalculatePoints(semesterDrift.stream().map(PointsDriftRow::getId).toList());
+            }
+
+            Set<Long> memberIds = new HashSet<>();
+            totalDrift.forEach(row -> memberIds.add(row.getMemberId()));
+            semesterDrift.forEach(row -> memberIds.add(row.getMemberId()));
+            TransactionUtils.afterCommit(() -> {
+                scoreboardIndexService.invalidateSection(sectionId);
+                memberIds.forEach(memberId -> scoreboardStreamService.markChanged(sectionId, memberId));
+                sectionVersionService.bump(sectionId);
+            });
+        }
+
+        List<PointsDriftDto> drift = new ArrayList<>(totalDrift.size() + semesterDrift.size());
+        totalDrift.forEach(row -> drift.add(toDriftDto(row)));
+        semesterDrift.forEach(row -> drift.add(toDriftDto(row)));
+        return new PointsRecalculationDto(sectionId, dryRun, drift);
+    }
 
+    private static PointsDriftDto toDriftDto(PointsDriftRow row) {
+        return new PointsDriftDto(row.getMemberId(), row.getSemesterId(), row.getStored(), row.getComputed());
     }
 }
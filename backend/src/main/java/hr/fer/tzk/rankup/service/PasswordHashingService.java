@@ -0,0 +1,155 @@
+package hr.fer.tzk.rankup.service;
+
+import hr.fer.tzk.rankup.dto.PasswordHashingStatsDto;
+import hr.fer.tzk.rankup.security.PasswordHasher;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hashes and checks passwords on a small dedicated pool instead of the request threads.
+ *
+ * <p>
+ * Every Argon2 call takes 64 MB of native memory, so the pool size caps how much memory hashing can use no matter
+ * how many logins arrive at once. Calls wait in a bounded queue; when it is full, or a call does not finish within
+ * {@code rankup.hashing.timeout-ms}, {@link RejectedExecutionException} is thrown and the caller should answer
+ * {@code 503 Service Unavailable}.
+ * </p>
+ */
+@Service
+public class PasswordHashingService {
+
+    private final PasswordHasher passwordHasher;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder answered = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    @Autowired
+    public PasswordHashingService(@Qualifier("passwordHasher") PasswordHasher passwordHasher,
+                                  @Value("${rankup.hashing.threads:2}") int threads,
+                                  @Value("${rankup.hashing.queue-capacity:50}") int queueCapacity,
+                                  @Value("${rankup.hashing.timeout-ms:10000}") long timeoutMillis) {
+        this.passwordHasher = passwordHasher;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "hashing-" + threadNumber.incrementAndGet()));
+    }
+
+    /**
+     * @throws RejectedExecutionException if too many passwords are waiting or the check timed out.
+     */
+    public boolean checkPassword(String password, String salt, String hash) {
+        return run(() -> passwordHasher.checkPassword(password, salt, hash));
+    }
+
+    /**
+     * @throws RejectedExecutionException if too many passwords are waiting or hashing timed out.
+     */
+    public String hashPassword(String password, String salt) {
+        return run(() -> passwordHasher.hashPassword(password, salt));
+    }
+
+    /**
+     * Checks if the hash was made with another algorithm or other parameters than new hashes. Cheap, so it is not
+     * run on the pool.
+     */
+    public boolean needsRehash(String hash) {
+        return passwordHasher.needsRehash(hash);
+    }
+
+    /**
+     * Returns true if a hash submitted now would start right away, without waiting behind other calls.
+     */
+    public boolean isIdle() {
+        return executor.getActiveCount() < executor.getMaximumPoolSize() && executor.getQueue().isEmpty();
+    }
+
+    public String generateSalt() {
+        return passwordHasher.generateSalt();
+    }
+
+    public PasswordHashingStatsDto getStats() {
+        long count = completed.sum();
+        long answers = answered.sum();
+        return new PasswordHashingStatsDto(
+                passwordHasher.getParameters(),
+                executor.getMaximumPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                queueCapacity,
+                count,
+                rejected.sum(),
+                timedOut.sum(),
+                count == 0 ? 0 : toMillis(hashNanos.sum()) / count,
+                toMillis(maxHashNanos.get()),
+                answers == 0 ? 0 : toMillis(waitNanos.sum()) / answers);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    long elapsed = System.nanoTime() - started;
+                    completed.increment();
+                    hashNanos.add(elapsed);
+                    maxHashNanos.accumulateAndGet(elapsed, Math::max);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+
+        try {
+            T result = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            answered.increment();
+            waitNanos.add(System.nanoTime() - submitted);
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new RejectedExecutionException("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
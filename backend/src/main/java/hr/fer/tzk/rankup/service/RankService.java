@@ -11,10 +11,14 @@ import java.util.Optional;
 @Service
 public class RankService {
     private final RankRepository rankRepository;
+    private final ScoreboardIndexService scoreboardIndexService;
+    private final SectionVersionService sectionVersionService;
 
     @Autowired
-    public RankService(RankRepository rankRepository) {
+    public RankService(RankRepository rankRepository, ScoreboardIndexService scoreboardIndexService, SectionVersionService sectionVersionService) {
         this.rankRepository = rankRepository;
+        this.scoreboardIndexService = scoreboardIndexService;
+        this.sectionVersionService = sectionVersionService;
     }
 
     public List<Rank> getRanks() {
@@ -24,4 +28,15 @@ public class RankService {
     public Optional<Rank> findRankByNameAndSection_Id(String name, Long sectionId) {
         return rankRepository.findByNameAndSection_Id(name, sectionId);
     }
+
+    /**
+     * Saves the rank. Its name and points modifier are shown on profiles of every member with the rank, so the
+     * section's cached views are dropped.
+     */
+    public Rank updateRank(Rank rank) {
+        Rank updated = rankRepository.save(rank);
+        scoreboardIndexService.invalidateSection(updated.getSection().getId());
+        sectionVersionService.bump(updated.getSection().getId());
+        return updated;
+    }
 }
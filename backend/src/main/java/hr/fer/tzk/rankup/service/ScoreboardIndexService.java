@@ -0,0 +1,243 @@
+package hr.fer.tzk.rankup.service;
+
+import hr.fer.tzk.rankup.dto.ScoreboardDto;
+import hr.fer.tzk.rankup.model.Semester;
+import hr.fer.tzk.rankup.repository.SectionMemberRepository;
+import hr.fer.tzk.rankup.repository.SectionSemesterRepository;
+import hr.fer.tzk.rankup.repository.SemesterRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-memory scoreboard index. Keeps one {@link SectionRanking} per section and view (total, semester
+ * and academic year) so the scoreboard can be served without querying the database on every request.
+ *
+ * <p>
+ * Rankings are loaded lazily on first use. Participation changes are applied as point deltas with
+ * {@link #applyDelta(Long, Long, Semester, int)}, while structural changes (new or removed section members,
+ * renamed members, new semesters) drop the affected rankings so they are reloaded on next read.
+ * </p>
+ *
+ * <p>
+ * Every delta and invalidation bumps the generation of its section. A ranking is only installed if the generation
+ * did not change while it was loaded; otherwise the load may have missed a change that could not be applied to it
+ * yet, so it is loaded again. Deltas are applied after their transaction commits, so a load that reads the committed
+ * rows before the delta arrives would count it twice. Writers therefore call {@link #holdUntilApplied(Long)}, and no
+ * ranking of the section is installed between the commit and the delta.
+ * </p>
+ */
+@Service
+public class ScoreboardIndexService {
+
+    private static final String TOTAL = "total";
+    private static final String SEMESTER = "semester:";
+    private static final String YEAR = "year:";
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+
+    private final SectionMemberRepository sectionMemberRepository;
+    private final SectionSemesterRepository sectionSemesterRepository;
+    private final SemesterRepository semesterRepository;
+
+    private final Map<RankingKey, SectionRanking> rankings = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+    // Bumped by invalidateAll, counts as part of the generation of every section.
+    private final AtomicLong globalGeneration = new AtomicLong();
+    // Transactions of each section that committed but whose deltas were not applied yet.
+    private final Map<Long, AtomicInteger> pendingDeltas = new ConcurrentHashMap<>();
+
+    // All semesters ordered by end date, newest first, with the global generation they were loaded in.
+    // Null until first use.
+    private volatile CachedSemesters semesters;
+
+    @Autowired
+    public ScoreboardIndexService(SectionMemberRepository sectionMemberRepository, SectionSemesterRepository sectionSemesterRepository, SemesterRepository semesterRepository) {
+        this.sectionMemberRepository = sectionMemberRepository;
+        this.sectionSemesterRepository = sectionSemesterRepository;
+        this.semesterRepository = semesterRepository;
+    }
+
+    public SectionRanking getTotalRanking(Long idSection) {
+        return getRanking(new RankingKey(idSection, TOTAL), () -> loadTotal(idSection));
+    }
+
+    public SectionRanking getSemesterRanking(Long idSection, Semester semester) {
+        return getRanking(new RankingKey(idSection, SEMESTER + semester.getId()), () -> loadSemester(idSection, semester));
+    }
+
+    public SectionRanking getYearRanking(Long idSection, Semester semester) {
+        String academicYear = academicYearOf(semester);
+        return getRanking(new RankingKey(idSection, YEAR + academicYear), () -> loadYear(idSection, academicYear));
+    }
+
+    public Optional<Semester> findLatestSemester() {
+        List<Semester> all = getSemesters();
+        return all.isEmpty() ? Optional.empty() : Optional.of(all.get(0));
+    }
+
+    /**
+     * Applies a point change of one member to every loaded ranking it affects.
+     *
+     * @param idSection section of the event.
+     * @param idMember member whose points changed.
+     * @param semester semester the event belongs to.
+     * @param delta number of points added, negative if points were taken away.
+     */
+    public void applyDelta(Long idSection, Long idMember, Semester semester, int delta) {
+        bumpGeneration(idSection);
+        applyDelta(new RankingKey(idSection, TOTAL), idMember, delta);
+        applyDelta(new RankingKey(idSection, SEMESTER + semester.getId()), idMember, delta);
+        applyDelta(new RankingKey(idSection, YEAR + academicYearOf(semester)), idMember, delta);
+    }
+
+    public void invalidateSection(Long idSection) {
+        bumpGeneration(idSection);
+        rankings.keySet().removeIf(key -> key.idSection().equals(idSection));
+    }
+
+    public void invalidateAll() {
+        globalGeneration.incrementAndGet();
+        rankings.clear();
+    }
+
+    /**
+     * Keeps rankings of the section from being installed from the moment the current transaction commits until
+     * its deltas, registered with {@link hr.fer.tzk.rankup.utils.TransactionUtils#afterCommit(Runnable)}, have been
+     * applied. Must be called in the transaction that changes the section's points.
+     *
+     * @param idSection section whose points the transaction changes.
+     */
+    public void holdUntilApplied(Long idSection) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean held;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                pendingDeltas.computeIfAbsent(idSection, key -> new AtomicInteger()).incrementAndGet();
+                bumpGeneration(idSection);
+                held = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                // Runs after every afterCommit callback, so the deltas have been applied by now.
+                if (held) {
+                    bumpGeneration(idSection);
+                    pendingDeltas.get(idSection).decrementAndGet();
+                }
+            }
+        });
+    }
+
+    private void applyDelta(RankingKey key, Long idMember, int delta) {
+        // Runs under the lock of the key, so a ranking being installed right now either gets the delta or is
+        // discarded because the generation changed.
+        rankings.computeIfPresent(key, (k, ranking) ->
+                // Member joined after the ranking was loaded, reload it on next read.
+                ranking.addPoints(idMember, delta) ? ranking : null);
+    }
+
+    private SectionRanking getRanking(RankingKey key, Supplier<SectionRanking> loader) {
+        SectionRanking ranking = rankings.get(key);
+        for (int attempt = 1; ranking == null; attempt++) {
+            long generation = generationOf(key.idSection());
+            SectionRanking loaded = loader.get();
+            if (attempt == MAX_LOAD_ATTEMPTS) {
+                // The section keeps changing; serve this load without caching it.
+                return loaded;
+            }
+            ranking = rankings.compute(key, (k, existing) -> {
+                if (existing != null) {
+                    return existing;
+                }
+                return generationOf(key.idSection()) == generation && !hasPendingDeltas(key.idSection()) ? loaded : null;
+            });
+        }
+        return ranking;
+    }
+
+    private long generationOf(Long idSection) {
+        return globalGeneration.get() + generations.computeIfAbsent(idSection, key -> new AtomicLong()).get();
+    }
+
+    private boolean hasPendingDeltas(Long idSection) {
+        AtomicInteger pending = pendingDeltas.get(idSection);
+        return pending != null && pending.get() > 0;
+    }
+
+    private void bumpGeneration(Long idSection) {
+        generations.computeIfAbsent(idSection, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    private SectionRanking loadTotal(Long idSection) {
+        SectionRanking ranking = new SectionRanking();
+        sectionMemberRepository.findScoreboardBySectionId(idSection)
+                .forEach(row -> put(ranking, row));
+        return ranking;
+    }
+
+    private SectionRanking loadSemester(Long idSection, Semester semester) {
+        SectionRanking ranking = new SectionRanking();
+        sectionSemesterRepository.findScoreboardBySectionIdAndSemesterId(idSection, semester.getId())
+                .forEach(row -> put(ranking, row));
+        return ranking;
+    }
+
+    private SectionRanking loadYear(Long idSection, String academicYear) {
+        Map<Long, ScoreboardDto> rowsByMember = new HashMap<>();
+        getSemesters().stream()
+                .filter(semester -> academicYearOf(semester).equals(academicYear))
+                .flatMap(semester -> sectionSemesterRepository.findScoreboardBySectionIdAndSemesterId(idSection, semester.getId()).stream())
+                .forEach(row -> rowsByMember.merge(row.getMemberId(), row, (existing, added) -> {
+                    existing.setPoints(existing.getPoints() + added.getPoints());
+                    return existing;
+                }));
+
+        SectionRanking ranking = new SectionRanking();
+        rowsByMember.values().forEach(row -> put(ranking, row));
+        return ranking;
+    }
+
+    private List<Semester> getSemesters() {
+        CachedSemesters cached = semesters;
+        long generation = globalGeneration.get();
+        if (cached == null || cached.generation() != generation) {
+            // A list loaded before a concurrent invalidateAll keeps the old generation and is loaded again next time.
+            cached = new CachedSemesters(generation, List.copyOf(semesterRepository.findAllSemestersOrderedByDateToDesc()));
+            semesters = cached;
+        }
+        return cached.semesters();
+    }
+
+    private static void put(SectionRanking ranking, ScoreboardDto row) {
+        ranking.put(row.getMemberId(), row.getFirstName(), row.getLastName(), row.getPoints());
+    }
+
+    /**
+     * Returns academic year of the semester, e.g. {@code 23/24} for semesters {@code 23/24 ZS} and {@code 23/24 LJS}.
+     */
+    static String academicYearOf(Semester semester) {
+        String name = semester.getName().strip();
+        int space = name.indexOf(' ');
+        return space < 0 ? name : name.substring(0, space);
+    }
+
+    private record RankingKey(Long idSection, String view) {
+    }
+
+    private record CachedSemesters(long generation, List<Semester> semesters) {
+    }
+}
@@ -1,85 +1,165 @@
 package hr.fer.tzk.rankup.service;
 
+import hr.fer.tzk.rankup.dto.RankedScoreboardDto;
 import hr.fer.tzk.rankup.dto.ScoreboardDto;
-import hr.fer.tzk.rankup.mapper.SectionMemberMapper;
+import hr.fer.tzk.rankup.dto.ScoreboardPageDto;
+import hr.fer.tzk.rankup.dto.ScoreboardPositionDto;
 import hr.fer.tzk.rankup.mapper.SectionSemesterMapper;
-import hr.fer.tzk.rankup.model.SectionMember;
-import hr.fer.tzk.rankup.model.SectionSemester;
 import hr.fer.tzk.rankup.model.Semester;
+import hr.fer.tzk.rankup.repository.SectionSemesterRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.*;
 
 @Service
 public class ScoreboardService {
 
-    private final SectionMemberService sectionMemberService;
-    private final SemesterService semesterService;
-    private final SectionSemesterService sectionSemesterService;
+    private final ScoreboardIndexService scoreboardIndexService;
+    private final ScoreboardSnapshotService scoreboardSnapshotService;
+    private final SectionSemesterRepository sectionSemesterRepository;
 
     @Autowired
-    public ScoreboardService(SectionMemberService sectionMemberService, SemesterService semesterService, SectionSemesterService sectionSemesterService) {
-        this.sectionMemberService = sectionMemberService;
-        this.semesterService = semesterService;
-        this.sectionSemesterService = sectionSemesterService;
+    public ScoreboardService(ScoreboardIndexService scoreboardIndexService, ScoreboardSnapshotService scoreboardSnapshotService, SectionSemesterRepository sectionSemesterRepository) {
+        this.scoreboardIndexService = scoreboardIndexService;
+        this.scoreboardSnapshotService = scoreboardSnapshotService;
+        this.sectionSemesterRepository = sectionSemesterRepository;
     }
 
     public List<ScoreboardDto> getPointsTotal(Long idSection) {
-        List<SectionMember> members = sectionMemberService.findAllSectionMembersByIdSection(idSection);
-        return members.stream()
-                .map(SectionMemberMapper::toScoreboardDto)
-                .sorted(Comparator.comparing(ScoreboardDto::getPoints).reversed())
-                .toList();
+        return getPointsTotal(idSection, null, null, null, null).getRows();
     }
 
     public List<ScoreboardDto> getPointsYear(Long idSection) {
-        Optional<Semester> latestOpt = semesterService.findLatestSemester();
-        if (latestOpt.isEmpty()) {
-            return List.of();
-        }
+        return getPointsYear(idSection, null, null, null).getRows();
+    }
 
-        Semester latest = latestOpt.get();
-        String name = latest.getName();
+    public List<ScoreboardDto> getPointsSemester(Long idSection) {
+        return getPointsSemester(idSection, null, null, null).getRows();
+    }
 
-        // There is only Winter semester, so use only that.
-        if (!name.endsWith("LJS")) {
-            return getPointsSemester(idSection);
-        }
+    /**
+     * Returns the total scoreboard with rank deltas against the latest snapshot taken on or before
+     * {@code since}, which defaults to yesterday.
+     */
+    public ScoreboardPageDto getPointsTotal(Long idSection, Integer limit, Integer afterPoints, Long afterMemberId, LocalDate since) {
+        SectionRanking ranking = scoreboardIndexService.getTotalRanking(idSection);
+        int from = afterPoints == null || afterMemberId == null ? 0 : ranking.countUpTo(afterPoints, afterMemberId);
+        ScoreboardPageDto page = page(ranking, limit, afterPoints, afterMemberId);
 
-        Map<Long, ScoreboardDto> scoreboardWithMemberId = new HashMap<>();
-        List<Semester> lastTwo = semesterService.findLatestNSemesters(2);
-        for (Semester sem : lastTwo) {
-             List<SectionSemester> pointsCurrentSemester = sectionSemesterService.findSectionSemesterByIdSectionAndIdSemester(idSection, sem.getId());
-            for (SectionSemester ss : pointsCurrentSemester) {
-                Long idMember = ss.getMember().getId();
-                ScoreboardDto scoreboard = scoreboardWithMemberId.get(idMember);
-                if (scoreboard == null) {
-                    scoreboard = SectionSemesterMapper.toScoreboardDto(ss);
-                    scoreboardWithMemberId.put(idMember, scoreboard);
-                } else {
-                    scoreboard.setPoints(scoreboard.getPoints() + ss.getPoints());
+        Map<Long, Integer> previous = scoreboardSnapshotService.getPositions(idSection, since == null ? LocalDate.now().minusDays(1) : since);
+        if (!previous.isEmpty()) {
+            List<ScoreboardDto> rows = page.getRows();
+            for (int i = 0; i < rows.size(); i++) {
+                Integer previousPosition = previous.get(rows.get(i).getMemberId());
+                if (previousPosition != null) {
+                    rows.get(i).setRankDelta(previousPosition - (from + i + 1));
                 }
             }
         }
+        return page;
+    }
+
+    /**
+     * Returns points for the academic year of the latest semester. If the latest semester is a Winter
+     * semester only its points are counted, otherwise Winter and Summer points are summed.
+     */
+    public ScoreboardPageDto getPointsYear(Long idSection, Integer limit, Integer afterPoints, Long afterMemberId) {
+        Optional<Semester> latestOpt = scoreboardIndexService.findLatestSemester();
+        if (latestOpt.isEmpty()) {
+            return new ScoreboardPageDto(List.of(), 0);
+        }
+
+        return page(scoreboardIndexService.getYearRanking(idSection, latestOpt.get()), limit, afterPoints, afterMemberId);
+    }
+
+    public ScoreboardPageDto getPointsSemester(Long idSection, Integer limit, Integer afterPoints, Long afterMemberId) {
+        Optional<Semester> latestOpt = scoreboardIndexService.findLatestSemester();
+        if (latestOpt.isEmpty()) {
+            return new ScoreboardPageDto(List.of(), 0);
+        }
+
+        return page(scoreboardIndexService.getSemesterRanking(idSection, latestOpt.get()), limit, afterPoints, afterMemberId);
+    }
 
-        return scoreboardWithMemberId.values()
+    /**
+     * Returns points summed over all semesters from the start of {@code idSemesterFrom} to the end of
+     * {@code idSemesterTo}. Sums and dense ranking are computed by the database in a single query.
+     */
+    public List<RankedScoreboardDto> getPointsBetweenSemesters(Long idSection, Long idSemesterFrom, Long idSemesterTo) {
+        return sectionSemesterRepository.findRankedScoreboardBetweenSemesters(idSection, idSemesterFrom, idSemesterTo)
                 .stream()
-                .sorted(Comparator.comparing(ScoreboardDto::getPoints).reversed())
+                .map(SectionSemesterMapper::toRankedScoreboardDto)
                 .toList();
     }
 
-    public List<ScoreboardDto> getPointsSemester(Long idSection) {
-        Optional<Semester> latestOpt = semesterService.findLatestSemester();
+    /**
+     * Returns points summed over the latest {@code n} semesters, ranked by the database in a single query.
+     */
+    public List<RankedScoreboardDto> getPointsLatestSemesters(Long idSection, int n) {
+        return sectionSemesterRepository.findRankedScoreboardForLatestSemesters(idSection, n)
+                .stream()
+                .map(SectionSemesterMapper::toRankedScoreboardDto)
+                .toList();
+    }
+
+    /**
+     * Returns position of the member in the given view ({@code total}, {@code semester} or {@code year})
+     * together with {@code radius} members above and below. Only the window is read from the ranking,
+     * so the cost does not depend on the size of the section.
+     */
+    public Optional<ScoreboardPositionDto> getPosition(Long idSection, Long idMember, String view, int radius) {
+        Optional<SectionRanking> rankingOpt = findRanking(idSection, view);
+        if (rankingOpt.isEmpty()) {
+            return Optional.empty();
+        }
+
+        SectionRanking ranking = rankingOpt.get();
+        // Holding the ranking's lock keeps the position and the window consistent.
+        synchronized (ranking) {
+            int position = ranking.positionOf(idMember);
+            if (position < 0) {
+                return Optional.empty();
+            }
+
+            int from = Math.max(0, position - radius);
+            List<ScoreboardDto> rows = ranking.slice(from, position - from + radius + 1);
+            List<RankedScoreboardDto> neighbours = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                neighbours.add(SectionSemesterMapper.toRankedScoreboardDto(rows.get(i), from + i + 1));
+            }
+            return Optional.of(new ScoreboardPositionDto(idMember, position + 1, ranking.size(), neighbours));
+        }
+    }
+
+    private Optional<SectionRanking> findRanking(Long idSection, String view) {
+        if (view.equals("total")) {
+            return Optional.of(scoreboardIndexService.getTotalRanking(idSection));
+        }
+
+        Optional<Semester> latestOpt = scoreboardIndexService.findLatestSemester();
         if (latestOpt.isEmpty()) {
-            return List.of();
+            return Optional.empty();
         }
+        return Optional.of(view.equals("year")
+                ? scoreboardIndexService.getYearRanking(idSection, latestOpt.get())
+                : scoreboardIndexService.getSemesterRanking(idSection, latestOpt.get()));
+    }
 
-        Semester latest = latestOpt.get();
-        List<SectionSemester> pointsCurrentSemester = sectionSemesterService.findSectionSemesterByIdSectionAndIdSemester(idSection, latest.getId());
-        return pointsCurrentSemester.stream()
-                .map(SectionSemesterMapper::toScoreboardDto)
-                .sorted(Comparator.comparing(ScoreboardDto::getPoints).reversed())
-                .toList();
+    /**
+     * Returns one page of the ranking. Rows are ordered by points (descending) and member ID (ascending),
+     * and the page starts right after the (afterPoints, afterMemberId) cursor if it is given.
+     * Seeking to the cursor is {@code O(log n)}, so every page costs the same as the first one.
+     */
+    private ScoreboardPageDto page(SectionRanking ranking, Integer limit, Integer afterPoints, Long afterMemberId) {
+        int pageSize = limit == null ? Integer.MAX_VALUE : limit;
+        List<ScoreboardDto> rows;
+        if (afterPoints == null || afterMemberId == null) {
+            rows = ranking.slice(0, pageSize);
+        } else {
+            rows = ranking.sliceAfter(afterPoints, afterMemberId, pageSize);
+        }
+        return new ScoreboardPageDto(rows, ranking.size());
     }
 }
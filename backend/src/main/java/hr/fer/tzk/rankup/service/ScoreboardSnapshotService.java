@@ -0,0 +1,108 @@
+package hr.fer.tzk.rankup.service;
+
+import hr.fer.tzk.rankup.model.ScoreboardSnapshot;
+import hr.fer.tzk.rankup.model.Section;
+import hr.fer.tzk.rankup.repository.ScoreboardSnapshotRepository;
+import hr.fer.tzk.rankup.repository.SectionRepository;
+import hr.fer.tzk.rankup.utils.TransactionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Daily snapshots of the total scoreboard of every section, used to show how many places a member
+ * moved since a given day.
+ *
+ * <p>
+ * Snapshots are written once a day, one {@code INSERT ... SELECT} per section. Daily snapshots older than
+ * {@code rankup.snapshots.daily-retention-days} are downsampled to one snapshot per week (the earliest one).
+ * Loaded snapshots are kept in memory as member ID to position maps, so the delta of a row is a single lookup.
+ * Snapshot dates of each section are kept in memory too, so finding the snapshot for a day needs no query; both
+ * are dropped once new snapshots are committed.
+ * </p>
+ */
+@Service
+public class ScoreboardSnapshotService {
+
+    private final ScoreboardSnapshotRepository snapshotRepository;
+    private final SectionRepository sectionRepository;
+    private final SectionVersionService sectionVersionService;
+    private final int dailyRetentionDays;
+
+    private final Map<SnapshotKey, Map<Long, Integer>> positions = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableSet<LocalDate>> snapshotDates = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ScoreboardSnapshotService(ScoreboardSnapshotRepository snapshotRepository,
+                                     SectionRepository sectionRepository,
+                                     SectionVersionService sectionVersionService,
+                                     @Value("${rankup.snapshots.daily-retention-days:60}") int dailyRetentionDays) {
+        this.snapshotRepository = snapshotRepository;
+        this.sectionRepository = sectionRepository;
+        this.sectionVersionService = sectionVersionService;
+        this.dailyRetentionDays = dailyRetentionDays;
+    }
+
+    @Scheduled(cron = "${rankup.snapshots.cron:0 55 23 * * *}")
+    @Transactional
+    public void takeDailySnapshots() {
+        LocalDate today = LocalDate.now();
+        for (Section section : sectionRepository.findAll()) {
+            snapshotRepository.deleteSnapshot(section.getId(), today);
+            snapshotRepository.insertSnapshot(section.getId(), today);
+        }
+        downsample(today.minusDays(dailyRetentionDays));
+
+        TransactionUtils.afterCommit(() -> {
+            positions.clear();
+            snapshotDates.clear();
+            sectionVersionService.bumpAll();
+        });
+    }
+
+    /**
+     * Returns positions (1-based) of section members in the latest snapshot taken on or before {@code date},
+     * or an empty map if there is no such snapshot.
+     */
+    public Map<Long, Integer> getPositions(Long idSection, LocalDate date) {
+        LocalDate snapshotDate = snapshotDates.computeIfAbsent(idSection, key ->
+                Collections.unmodifiableNavigableSet(new TreeSet<>(snapshotRepository.findAllSnapshotDates(key))))
+                .floor(date);
+        if (snapshotDate == null) {
+            return Map.of();
+        }
+
+        return positions.computeIfAbsent(new SnapshotKey(idSection, snapshotDate), key ->
+                snapshotRepository.findAllByIdSectionAndSnapshotDate(key.idSection(), key.snapshotDate())
+                        .stream()
+                        .collect(Collectors.toUnmodifiableMap(ScoreboardSnapshot::getIdMember, ScoreboardSnapshot::getPosition)));
+    }
+
+    // Keeps the earliest snapshot of every week before the cutoff and deletes the rest.
+    private void downsample(LocalDate cutoff) {
+        Map<LocalDate, LocalDate> firstOfWeek = new HashMap<>();
+        List<LocalDate> dates = snapshotRepository.findAllSnapshotDatesBefore(cutoff);
+        for (LocalDate date : dates) {
+            firstOfWeek.merge(date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)), date,
+                    (existing, added) -> added.isBefore(existing) ? added : existing);
+        }
+
+        Set<LocalDate> toDelete = new HashSet<>(dates);
+        toDelete.removeAll(firstOfWeek.values());
+        if (!toDelete.isEmpty()) {
+            snapshotRepository.deleteAllBySnapshotDateIn(toDelete);
+        }
+    }
+
+    private record SnapshotKey(Long idSection, LocalDate snapshotDate) {
+    }
+}
@@ -0,0 +1,179 @@
+package hr.fer.tzk.rankup.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hr.fer.tzk.rankup.dto.ScoreboardDeltaDto;
+import hr.fer.tzk.rankup.model.Semester;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Pushes changes of the semester scoreboard to subscribed clients over Server-Sent Events.
+ *
+ * <p>
+ * Emitters are held by the servlet container as async requests, so idle connections do not hold a thread.
+ * Changed members are collected per section and sent as one {@code scoreboard} event every
+ * {@code rankup.scoreboard-stream.window-ms}, so a burst of writes results in a single push.
+ * Emitters that fail on send, time out or are closed by the client are removed from the registry.
+ * </p>
+ *
+ * <p>
+ * Events are serialized once and written by a dedicated sender thread, so a slow client never holds up the
+ * scheduler thread shared with the other periodic tasks. One thread keeps the events of every client in order.
+ * When {@code rankup.scoreboard-stream.queue-capacity} pushes are already waiting, changed members are kept for
+ * the next push and heartbeats are skipped.
+ * </p>
+ */
+@Service
+public class ScoreboardStreamService {
+
+    private static final String EVENT_NAME = "scoreboard";
+
+    private final ScoreboardIndexService scoreboardIndexService;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeout;
+    private final ThreadPoolExecutor sender;
+
+    private final Map<Long, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> changedMembers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ScoreboardStreamService(ScoreboardIndexService scoreboardIndexService, ObjectMapper objectMapper,
+                                   @Value("${rankup.scoreboard-stream.timeout-ms:1800000}") long emitterTimeout,
+                                   @Value("${rankup.scoreboard-stream.queue-capacity:100}") int queueCapacity) {
+        this.scoreboardIndexService = scoreboardIndexService;
+        this.objectMapper = objectMapper;
+        this.emitterTimeout = emitterTimeout;
+        this.sender = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "scoreboard-stream"));
+    }
+
+    public SseEmitter subscribe(Long idSection) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout);
+        emitters.compute(idSection, (key, subscribers) -> {
+            Set<SseEmitter> result = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+            result.add(emitter);
+            return result;
+        });
+
+        emitter.onCompletion(() -> unsubscribe(idSection, emitter));
+        emitter.onTimeout(() -> unsubscribe(idSection, emitter));
+        emitter.onError(e -> unsubscribe(idSection, emitter));
+        return emitter;
+    }
+
+    /**
+     * Marks the member's scoreboard row as changed. The new points and position are sent with the next push.
+     */
+    public void markChanged(Long idSection, Long idMember) {
+        if (!emitters.containsKey(idSection)) {
+            return;
+        }
+        markChanged(idSection, Set.of(idMember));
+    }
+
+    private void markChanged(Long idSection, Set<Long> idMembers) {
+        changedMembers.compute(idSection, (key, members) -> {
+            Set<Long> result = members == null ? new HashSet<>() : members;
+            result.addAll(idMembers);
+            return result;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${rankup.scoreboard-stream.window-ms:1000}")
+    public void pushChanges() {
+        for (Long idSection : changedMembers.keySet()) {
+            Set<Long> members = changedMembers.remove(idSection);
+            Set<SseEmitter> subscribers = emitters.get(idSection);
+            if (members == null || subscribers == null || subscribers.isEmpty()) {
+                continue;
+            }
+
+            Optional<Semester> latest = scoreboardIndexService.findLatestSemester();
+            if (latest.isEmpty()) {
+                continue;
+            }
+
+            SectionRanking ranking = scoreboardIndexService.getSemesterRanking(idSection, latest.get());
+            List<ScoreboardDeltaDto> deltas = new ArrayList<>(members.size());
+            for (Long idMember : members) {
+                int position = ranking.positionOf(idMember);
+                if (position >= 0) {
+                    deltas.add(new ScoreboardDeltaDto(idMember, ranking.pointsOf(idMember), position + 1));
+                }
+            }
+            if (deltas.isEmpty()) {
+                continue;
+            }
+
+            Set<ResponseBodyEmitter.DataWithMediaType> event;
+            try {
+                event = SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .data(objectMapper.writeValueAsString(deltas), MediaType.APPLICATION_JSON)
+                        .build();
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+            if (!submit(idSection, subscribers, event)) {
+                markChanged(idSection, members);
+            }
+        }
+    }
+
+    /**
+     * Sends a comment to every subscriber, so dead connections are detected and proxies keep idle ones open.
+     */
+    @Scheduled(fixedDelayString = "${rankup.scoreboard-stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> event = SseEmitter.event().comment("heartbeat").build();
+        emitters.forEach((idSection, subscribers) -> submit(idSection, subscribers, event));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    /**
+     * Queues the event for every subscriber of the section. Returns {@code false} if the sender queue is full.
+     */
+    private boolean submit(Long idSection, Set<SseEmitter> subscribers, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        try {
+            sender.execute(() -> send(idSection, subscribers, event));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    // The built event is shared; SseEventBuilder.build() must not be called again for every subscriber.
+    private void send(Long idSection, Set<SseEmitter> subscribers, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        for (SseEmitter emitter : subscribers) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(idSection, emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void unsubscribe(Long idSection, SseEmitter emitter) {
+        emitters.computeIfPresent(idSection, (key, subscribers) -> {
+            subscribers.remove(emitter);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package hr.fer.tzk.rankup.service;
 
+import hr.fer.tzk.rankup.dto.PointsDriftRow;
 import hr.fer.tzk.rankup.model.Member;
 import hr.fer.tzk.rankup.model.Rank;
 import hr.fer.tzk.rankup.model.Section;
@@ -8,6 +9,7 @@ import hr.fer.tzk.rankup.repository.SectionMemberRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,13 +20,17 @@ public class SectionMemberService {
     private final MemberService memberService;
     private final SectionService sectionService;
     private final RankService rankService;
+    private final ScoreboardIndexService scoreboardIndexService;
+    private final SectionVersionService sectionVersionService;
 
     @Autowired
-    public SectionMemberService(SectionMemberRepository sectionMemberRepository, MemberService memberService, SectionService sectionService, RankService rankService) {
+    public SectionMemberService(SectionMemberRepository sectionMemberRepository, MemberService memberService, SectionService sectionService, RankService rankService, ScoreboardIndexService scoreboardIndexService, SectionVersionService sectionVersionService) {
         this.sectionMemberRepository = sectionMemberRepository;
         this.memberService = memberService;
         this.sectionService = sectionService;
         this.rankService = rankService;
+        this.scoreboardIndexService = scoreboardIndexService;
+        this.sectionVersionService = sectionVersionService;
     }
 
     public List<SectionMember> findAllSectionMembersByIdSection(Long idSection) {
@@ -51,21 +57,70 @@ public class SectionMemberService {
         member.setMember(memberOpt.get());
         member.setSection(sectionOpt.get());
         member.setRank(rankOpt.get());
-        return Optional.of(sectionMemberRepository.save(member));
+        member = sectionMemberRepository.save(member);
+        scoreboardIndexService.invalidateSection(idSection);
+        sectionVersionService.bump(idSection);
+        return Optional.of(member);
     }
+    /**
+     * Saves the section member, e.g. after its rank changed. Rank names and point modifiers are shown on profiles,
+     * so the section's cached views are dropped.
+     */
     public SectionMember update(SectionMember sectionMember) {
-        return sectionMemberRepository.save(sectionMember);
+        SectionMember updated = sectionMemberRepository.save(sectionMember);
+        scoreboardIndexService.invalidateSection(updated.getSection().getId());
+        sectionVersionService.bump(updated.getSection().getId());
+        return updated;
     }
 
-    public List<SectionMember> createSectionMembersMultiple(Long sectionId, List<Member> members, String rank) {
-        List<String> jmbags = members.stream().map(Member::getJmbag).toList();
-        return jmbags.stream().map(jmbag -> createSectionMemberFromJmbagAndRank(sectionId, jmbag, rank).orElse(null)).toList();
+    /**
+     * Returns IDs of the given members that are members of the section.
+     */
+    public List<Long> findMemberIdsInSection(Long idSection, Collection<Long> idMembers) {
+        return sectionMemberRepository.findMemberIdsBySectionIdAndMemberIdIn(idSection, idMembers);
+    }
+
+    /**
+     * Adds points to total points of all given section members with one update. Must run in a transaction.
+     */
+    public int addPoints(Long idSection, Collection<Long> idMembers, int points) {
+        return sectionMemberRepository.addPoints(idSection, idMembers, points);
+    }
+
+    /**
+     * Adds points to total points of all section members participating in the event with one update. Must run in a transaction.
+     */
+    public int addPointsToParticipants(Long idSection, Long idEvent, int points) {
+        return sectionMemberRepository.addPointsToParticipants(idSection, idEvent, points);
+    }
+
+    /**
+     * Adds points to total points of section members once per participation in events of the type. Must run in a transaction.
+     */
+    public int addPointsPerParticipationInEventType(Long idEventType, int points) {
+        return sectionMemberRepository.addPointsPerParticipationInEventType(idEventType, points);
+    }
+
+    /**
+     * Returns section members whose stored total points differ from points computed from participations.
+     */
+    public List<PointsDriftRow> findPointsDrift(Long idSection) {
+        return sectionMemberRepository.findPointsDrift(idSection);
+    }
+
+    /**
+     * Recomputes total points of the given section members from participations with one update. Must run in a transaction.
+     */
+    public int recalculatePoints(Collection<Long> ids) {
+        return sectionMemberRepository.recalculatePoints(ids);
     }
 
 
     public SectionMember deleteSectionMemberBySectionIdAndMemberId(Long sectionId, Long memberId) {
         SectionMember sectionMember = sectionMemberRepository.findSectionMemberByMember_IdAndSection_Id(memberId, sectionId).orElseThrow();
         sectionMemberRepository.delete(sectionMember);
+        scoreboardIndexService.invalidateSection(sectionId);
+        sectionVersionService.bump(sectionId);
         return sectionMember;
     }
 }
@@ -0,0 +1,271 @@
+package hr.fer.tzk.rankup.service;
+
+import hr.fer.tzk.rankup.dto.ScoreboardDto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ranking of the members of one section for one scoreboard view (total, semester or year).
+ *
+ * <p>
+ * Rows are kept in a size-augmented treap ordered by points (descending) and member ID (ascending),
+ * so point updates, position lookups and slices of the scoreboard all cost {@code O(log n)}.
+ * All public methods are synchronized, so a ranking can be shared between request threads.
+ * </p>
+ */
+public class SectionRanking {
+
+    private final Map<Long, Node> nodesByMember = new HashMap<>();
+    private Node root;
+
+    /**
+     * Inserts the member into the ranking or replaces its existing row.
+     *
+     * @param idMember ID of the member.
+     * @param firstName first name shown on the scoreboard.
+     * @param lastName last name shown on the scoreboard.
+     * @param points points of the member in this view.
+     */
+    public synchronized void put(Long idMember, String firstName, String lastName, int points) {
+        remove(idMember);
+        Node node = new Node(idMember, firstName, lastName, points);
+        nodesByMember.put(idMember, node);
+        insert(node);
+    }
+
+    /**
+     * Adds {@code delta} points to the member and moves it to its new position.
+     *
+     * @param idMember ID of the member.
+     * @param delta number of points to add, negative to subtract.
+     * @return {@code true} if the member is in the ranking, {@code false} otherwise
+     */
+    public synchronized boolean addPoints(Long idMember, int delta) {
+        Node node = nodesByMember.get(idMember);
+        if (node == null) {
+            return false;
+        }
+        if (delta == 0) {
+            return true;
+        }
+
+        root = delete(root, node.points, node.idMember);
+        node.points += delta;
+        node.left = null;
+        node.right = null;
+        node.size = 1;
+        insert(node);
+        return true;
+    }
+
+    public synchronized void remove(Long idMember) {
+        Node node = nodesByMember.remove(idMember);
+        if (node != null) {
+            root = delete(root, node.points, node.idMember);
+        }
+    }
+
+    public synchronized boolean contains(Long idMember) {
+        return nodesByMember.containsKey(idMember);
+    }
+
+    public synchronized int size() {
+        return size(root);
+    }
+
+    /**
+     * Returns points of the member, or {@code 0} if the member is not ranked.
+     */
+    public synchronized int pointsOf(Long idMember) {
+        Node node = nodesByMember.get(idMember);
+        return node == null ? 0 : node.points;
+    }
+
+    /**
+     * Returns zero-based position of the member, or {@code -1} if the member is not ranked.
+     */
+    public synchronized int positionOf(Long idMember) {
+        Node node = nodesByMember.get(idMember);
+        if (node == null) {
+            return -1;
+        }
+        return countBefore(node.points, node.idMember);
+    }
+
+    /**
+     * Returns number of rows ordered strictly before the given (points, member ID) key.
+     */
+    public synchronized int countBefore(int points, long idMember) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (compare(node.points, node.idMember, points, idMember) < 0) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns number of rows ordered at or before the given (points, member ID) key.
+     */
+    public synchronized int countUpTo(int points, long idMember) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (compare(node.points, node.idMember, points, idMember) <= 0) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns at most {@code limit} rows ordered strictly after the given (points, member ID) key.
+     * The key does not have to be in the ranking, so a cursor stays valid if its member moved.
+     */
+    public synchronized List<ScoreboardDto> sliceAfter(int points, long idMember, int limit) {
+        return slice(countUpTo(points, idMember), limit);
+    }
+
+    /**
+     * Returns at most {@code limit} rows starting at zero-based position {@code from}.
+     */
+    public synchronized List<ScoreboardDto> slice(int from, int limit) {
+        List<ScoreboardDto> rows = new ArrayList<>(Math.max(0, Math.min(limit, size(root) - from)));
+        collect(root, Math.max(from, 0), limit, rows);
+        return rows;
+    }
+
+    public synchronized List<ScoreboardDto> toList() {
+        return slice(0, Integer.MAX_VALUE);
+    }
+
+    private void insert(Node node) {
+        Node[] parts = split(root, node.points, node.idMember);
+        root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    private static void collect(Node node, int from, int limit, List<ScoreboardDto> rows) {
+        if (node == null || rows.size() >= limit) {
+            return;
+        }
+
+        int leftSize = size(node.left);
+        if (from < leftSize) {
+            collect(node.left, from, limit, rows);
+        }
+        if (rows.size() >= limit) {
+            return;
+        }
+        if (from <= leftSize) {
+            rows.add(node.toDto());
+        }
+        collect(node.right, Math.max(0, from - leftSize - 1), limit, rows);
+    }
+
+    /**
+     * Splits the tree into rows ordered before the key and rows ordered at or after the key.
+     */
+    private static Node[] split(Node node, int points, long idMember) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+
+        if (compare(node.points, node.idMember, points, idMember) < 0) {
+            Node[] parts = split(node.right, points, idMember);
+            node.right = parts[0];
+            update(node);
+            return new Node[]{node, parts[1]};
+        }
+
+        Node[] parts = split(node.left, points, idMember);
+        node.left = parts[1];
+        update(node);
+        return new Node[]{parts[0], node};
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node delete(Node node, int points, long idMember) {
+        if (node == null) {
+            return null;
+        }
+
+        int cmp = compare(points, idMember, node.points, node.idMember);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = delete(node.left, points, idMember);
+        } else {
+            node.right = delete(node.right, points, idMember);
+        }
+        update(node);
+        return node;
+    }
+
+    // More points come first, ties are broken by member ID so the order is stable.
+    private static int compare(int pointsA, long idMemberA, int pointsB, long idMemberB) {
+        if (pointsA != pointsB) {
+            return Integer.compare(pointsB, pointsA);
+        }
+        return Long.compare(idMemberA, idMemberB);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static final class Node {
+        private final long idMember;
+        private final String firstName;
+        private final String lastName;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int points;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long idMember, String firstName, String lastName, int points) {
+            this.idMember = idMember;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.points = points;
+        }
+
+        private ScoreboardDto toDto() {
+            return new ScoreboardDto(idMember, firstName, lastName, points);
+        }
+    }
+}
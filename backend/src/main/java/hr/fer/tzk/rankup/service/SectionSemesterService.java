@@ -1,15 +1,27 @@
 package hr.fer.tzk.rankup.service;
 
+import hr.fer.tzk.rankup.dto.BasicMemberDto;
+import hr.fer.tzk.rankup.dto.PeEnrollmentImportDto;
+import hr.fer.tzk.rankup.dto.PointsDriftRow;
+import hr.fer.tzk.rankup.dto.RosterLineDto;
+import hr.fer.tzk.rankup.dto.RosterReportDto;
+import hr.fer.tzk.rankup.mapper.MemberMapper;
 import hr.fer.tzk.rankup.model.SectionMember;
 import hr.fer.tzk.rankup.model.SectionSemester;
 import hr.fer.tzk.rankup.repository.SectionSemesterRepository;
-import hr.fer.tzk.rankup.utils.JmbagUtils;
+import hr.fer.tzk.rankup.utils.RosterUtils;
+import hr.fer.tzk.rankup.utils.TransactionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -17,11 +29,15 @@ public class SectionSemesterService {
 
     private final SectionSemesterRepository sectionSemesterRepository;
     private final SemesterService semesterService;
+    private final ScoreboardIndexService scoreboardIndexService;
+    private final SectionVersionService sectionVersionService;
 
     @Autowired
-    public SectionSemesterService(SectionSemesterRepository sectionSemesterRepository, SemesterService semesterService) {
+    public SectionSemesterService(SectionSemesterRepository sectionSemesterRepository, SemesterService semesterService, ScoreboardIndexService scoreboardIndexService, SectionVersionService sectionVersionService) {
         this.sectionSemesterRepository = sectionSemesterRepository;
         this.semesterService = semesterService;
+        this.scoreboardIndexService = scoreboardIndexService;
+        this.sectionVersionService = sectionVersionService;
     }
 
     public Optional<SectionSemester> findSectionSemesterByAlterKey(Long idMember, Long idSection, Long idSemester) {
@@ -40,11 +56,13 @@ public class SectionSemesterService {
                     sectionSemester.setSemester(semester);
                     sectionSemester.setSection(member.getSection());
                     sectionSemester.setPoints(0);
-                    sectionSemester.setThreshold(12);
+                    sectionSemester.setThreshold(SectionSemester.DEFAULT_THRESHOLD);
                     sectionSemester.setMember(member.getMember());
                     return sectionSemester;
                 }).toList();
         sectionSemesters.forEach(sectionSemesterRepository::save);
+        scoreboardIndexService.invalidateSection(member.getSection().getId());
+        sectionVersionService.bump(member.getSection().getId());
         return sectionSemesters;
     }
 
@@ -52,46 +70,69 @@ public class SectionSemesterService {
         return sectionSemesterRepository.save(sectionSemester);
     }
 
-    public List<SectionSemester> updatePeEnrolled(Long sectionId, Long semesterId, MultipartFile file) throws IOException {
-        List<String> jmbags = readJmbagsFromFile(file);
-        List<SectionSemester> sectionSemesters = findSectionSemesterByIdSectionAndIdSemester(sectionId, semesterId);
-        return null;
+    /**
+     * Adds points to semester points of all given section members with one update. Must run in a transaction.
+     */
+    public int addPoints(Long idSection, Long idSemester, Collection<Long> idMembers, int points) {
+        return sectionSemesterRepository.addPoints(idSection, idSemester, idMembers, points);
     }
 
+    /**
+     * Adds points to semester points of all section members participating in the event with one update. Must run in a transaction.
+     */
+    public int addPointsToParticipants(Long idSection, Long idSemester, Long idEvent, int points) {
+        return sectionSemesterRepository.addPointsToParticipants(idSection, idSemester, idEvent, points);
+    }
 
-    private List<String> readJmbagsFromFile(MultipartFile file) throws IOException {
-        String type = file.getContentType();
-        assert type != null;
-
-        List<String> jmbags = null;
-        if (type.equals("application/octet-stream") || type.equals("text/plain")) {
-            byte[] textBytes = file.getBytes();
-            String textString = new String(textBytes);
-            jmbags = List.of(textString.split("\n"));
-        } else if (type.equals("text/csv")) {
-            byte[] textBytes = file.getBytes();
-            String textString = new String(textBytes);
-            List<String> tmp = List.of(textString.split("\n"));
-
-            jmbags = tmp.stream()
-                    .map(line -> {
-                        List<String> chunks = List.of(line.split(","));
-                        String jmbag = null;
-                        for (String chunk: chunks) {
-                            if (chunk.contains("0036") || chunk.contains("0069") || chunk.contains("0062")  || chunk.contains("0246")) {
-                                jmbag = chunk;
-                            } else if (chunk.startsWith("36") || chunk.startsWith("69") || chunk.startsWith("62")) {
-                                jmbag = "00"+chunk;
-                            } else if (chunk.startsWith("246")) {
-                                jmbag = "0" + chunk;
-                            }
-                        }
-                        return jmbag;
-                    }).toList();
-        }
+    /**
+     * Adds points to semester points of section members once per participation in events of the type. Must run in a transaction.
+     */
+    public int addPointsPerParticipationInEventType(Long idEventType, int points) {
+        return sectionSemesterRepository.addPointsPerParticipationInEventType(idEventType, points);
+    }
+
+    /**
+     * Returns section semesters whose stored points differ from points computed from participations.
+     */
+    public List<PointsDriftRow> findPointsDrift(Long idSection, Collection<Long> idSemesters) {
+        return sectionSemesterRepository.findPointsDrift(idSection, idSemesters);
+    }
 
-        assert jmbags != null;
-        return jmbags;
+    /**
+     * Recomputes points of the given section semesters from participations with one update. Must run in a transaction.
+     */
+    public int recalculatePoints(Collection<Long> ids) {
+        return sectionSemesterRepository.recalculatePoints(ids);
     }
 
+    /**
+     * Marks members listed in the roster file as enrolled in PE in the section and semester. Members that are not
+     * listed keep their current state. Lines of members without a row in the section and semester are reported
+     * as rejected.
+     */
+    @Transactional
+    public PeEnrollmentImportDto updatePeEnrolled(Long sectionId, Long semesterId, MultipartFile file) throws IOException {
+        RosterReportDto roster;
+        try (InputStream inputStream = file.getInputStream()) {
+            roster = RosterUtils.parseRoster(inputStream);
+        }
+        Map<String, RosterLineDto> linesByJmbag = new HashMap<>();
+        roster.getAcceptedLines().forEach(line -> linesByJmbag.put(line.getJmbag(), line));
+        if (linesByJmbag.isEmpty()) {
+            return new PeEnrollmentImportDto(List.of(), roster);
+        }
+
+        List<SectionSemester> sectionSemesters = sectionSemesterRepository.findAllBySectionIdAndSemesterIdAndJmbagIn(sectionId, semesterId, linesByJmbag.keySet());
+        sectionSemesters.forEach(sectionSemester -> {
+            sectionSemester.setPeEnrolled(true);
+            linesByJmbag.remove(sectionSemester.getMember().getJmbag());
+        });
+        linesByJmbag.values().forEach(line -> line.setReason("not a member of the section in the semester"));
+        TransactionUtils.afterCommit(() -> sectionVersionService.bump(sectionId));
+
+        List<BasicMemberDto> members = sectionSemesters.stream()
+                .map(sectionSemester -> MemberMapper.toBasicDto(sectionSemester.getMember()))
+                .toList();
+        return new PeEnrollmentImportDto(members, roster);
+    }
 }
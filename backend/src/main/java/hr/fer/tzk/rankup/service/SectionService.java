@@ -21,10 +21,14 @@ import java.util.Optional;
 public class SectionService {
 
     private final SectionRepository sectionRepository;
+    private final ScoreboardIndexService scoreboardIndexService;
+    private final SectionVersionService sectionVersionService;
 
     @Autowired
-    public SectionService(SectionRepository sectionRepository) {
+    public SectionService(SectionRepository sectionRepository, ScoreboardIndexService scoreboardIndexService, SectionVersionService sectionVersionService) {
         this.sectionRepository = sectionRepository;
+        this.scoreboardIndexService = scoreboardIndexService;
+        this.sectionVersionService = sectionVersionService;
     }
     public List<Section> findAllSections() {
         return sectionRepository.findAll();
@@ -46,6 +50,8 @@ public class SectionService {
         Section section = sectionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Section with id " + id + " not found"));
         sectionRepository.delete(section);
+        scoreboardIndexService.invalidateSection(id);
+        sectionVersionService.bump(id);
     }
 
     public Section updateSectionById(Long id, SectionForm form) {
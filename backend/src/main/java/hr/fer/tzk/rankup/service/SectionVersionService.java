@@ -0,0 +1,56 @@
+package hr.fer.tzk.rankup.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a monotonically increasing data version for every section. Writes that change what a section's
+ * scoreboard, events or profiles show bump the version, and read endpoints expose it as an {@code ETag}
+ * so unchanged data can be answered with {@code 304 Not Modified} without touching the database.
+ */
+@Service
+public class SectionVersionService {
+
+    // Versions are kept in memory, so ETags issued before a restart must never match again.
+    private final long startedAt = System.currentTimeMillis();
+
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    // Bumped by changes that affect every section, e.g. renamed members or new semesters.
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    public void bump(Long idSection) {
+        versions.computeIfAbsent(idSection, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    public void bumpAll() {
+        globalVersion.incrementAndGet();
+    }
+
+    public long getVersion(Long idSection) {
+        AtomicLong version = versions.get(idSection);
+        return version == null ? 0 : version.get();
+    }
+
+    /**
+     * Returns strong {@code ETag} for the current data of the section.
+     *
+     * @param idSection ID of the section.
+     * @param parts additional values the response depends on, e.g. the current date.
+     * @return quoted entity tag
+     */
+    public String getETag(Long idSection, Object... parts) {
+        StringBuilder eTag = new StringBuilder("\"")
+                .append(idSection).append('-')
+                .append(Long.toString(startedAt, 36)).append('-')
+                .append(globalVersion.get()).append('-')
+                .append(getVersion(idSection));
+        for (Object part : parts) {
+            eTag.append('-').append(part);
+        }
+        return eTag.append('"').toString();
+    }
+}
@@ -15,10 +15,14 @@ import java.util.Optional;
 public class SemesterService {
 
     private final SemesterRepository semesterRepository;
+    private final ScoreboardIndexService scoreboardIndexService;
+    private final SectionVersionService sectionVersionService;
 
     @Autowired
-    public SemesterService(SemesterRepository semesterRepository) {
+    public SemesterService(SemesterRepository semesterRepository, ScoreboardIndexService scoreboardIndexService, SectionVersionService sectionVersionService) {
         this.semesterRepository = semesterRepository;
+        this.scoreboardIndexService = scoreboardIndexService;
+        this.sectionVersionService = sectionVersionService;
     }
 
     public List<Semester> findAllSemesters() {
@@ -54,15 +58,23 @@ public class SemesterService {
     }
 
     public Semester createSemester(Semester semester) {
-        return semesterRepository.save(semester);
+        Semester saved = semesterRepository.save(semester);
+        scoreboardIndexService.invalidateAll();
+        sectionVersionService.bumpAll();
+        return saved;
     }
 
     public Semester updateSemester(Semester semester) {
-        return semesterRepository.save(semester);
+        Semester saved = semesterRepository.save(semester);
+        scoreboardIndexService.invalidateAll();
+        sectionVersionService.bumpAll();
+        return saved;
     }
 
     public Semester deleteSemester(Semester semester) {
         semesterRepository.delete(semester);
+        scoreboardIndexService.invalidateAll();
+        sectionVersionService.bumpAll();
         return semester;
     }
 
@@ -0,0 +1,97 @@
+package hr.fer.tzk.rankup.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+public class CsvUtils {
+
+    // Lets Excel recognize the file as UTF-8; skipped when reading uploaded files.
+    public static final char BOM = '\uFEFF';
+
+    /**
+     * Writes one CSV row, quoting values that contain a separator, quote or line break.
+     * Null values are written as empty cells.
+     */
+    public static void writeRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escape(values[i] == null ? "" : values[i].toString()));
+        }
+        writer.write("\r\n");
+    }
+
+    public static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Reads an uploaded file as UTF-8 line by line, so only the current line is held in memory.
+     *
+     * <p>
+     * A leading BOM is skipped and {@code \n}, {@code \r\n} and {@code \r} line endings are accepted. Blank lines
+     * are skipped, but still counted in the line numbers passed to {@code action}.
+     * </p>
+     *
+     * @param inputStream content of the uploaded file.
+     * @param action called with every non-blank line and its 1-based line number.
+     * @throws IOException if the file cannot be read.
+     */
+    public static void forEachLine(InputStream inputStream, ObjIntConsumer<String> action) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == BOM) {
+                    line = line.substring(1);
+                }
+                if (!line.isBlank()) {
+                    action.accept(line, lineNumber);
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits one CSV line into cells. Cells may be quoted, with {@code ""} standing for a quote inside a quoted cell.
+     */
+    public static List<String> parseLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+}
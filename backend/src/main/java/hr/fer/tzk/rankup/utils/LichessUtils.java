@@ -0,0 +1,89 @@
+package hr.fer.tzk.rankup.utils;
+
+import hr.fer.tzk.rankup.dto.LichessLineDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class LichessUtils {
+
+    // Columns of the arena export (Rank,Title,Username,Rating,Score,...), used when the file has no header.
+    private static final int DEFAULT_PLACEMENT_COLUMN = 0;
+    private static final int DEFAULT_USERNAME_COLUMN = 2;
+    private static final int DEFAULT_SCORE_COLUMN = 4;
+
+    /**
+     * Reads results of a Lichess tournament from its CSV export, one player per line.
+     *
+     * <p>
+     * The file is read with {@link CsvUtils#forEachLine}. If the first line is a header, the {@code Rank},
+     * {@code Username} and {@code Score} columns are found by name, otherwise the columns of the arena export are
+     * assumed. Usernames are lower-cased, since Lichess usernames are case-insensitive. Blank lines are skipped and
+     * every other line is reported, with the reason if it was rejected.
+     * </p>
+     *
+     * @param inputStream content of the uploaded file.
+     * @return one entry per player line
+     * @throws IOException if the file cannot be read.
+     */
+    public static List<LichessLineDto> parseArena(InputStream inputStream) throws IOException {
+        List<LichessLineDto> lines = new ArrayList<>();
+        Map<String, Integer> firstLineByUsername = new HashMap<>();
+        Columns columns = new Columns();
+
+        CsvUtils.forEachLine(inputStream, (line, lineNumber) -> {
+            List<String> cells = CsvUtils.parseLine(line);
+            if (lineNumber == 1 && cells.stream().anyMatch(cell -> cell.strip().equalsIgnoreCase("Username"))) {
+                List<String> header = cells.stream().map(cell -> cell.strip().toLowerCase(Locale.ROOT)).toList();
+                columns.placement = header.indexOf("rank");
+                columns.username = header.indexOf("username");
+                columns.score = header.indexOf("score");
+                return;
+            }
+
+            Integer placement = parseNumber(cell(cells, columns.placement));
+            String username = cell(cells, columns.username);
+            Integer score = parseNumber(cell(cells, columns.score));
+            String reason = null;
+            if (username == null || username.isEmpty()) {
+                reason = "no username found";
+                username = null;
+            } else {
+                username = username.toLowerCase(Locale.ROOT);
+                Integer firstLine = firstLineByUsername.putIfAbsent(username, lineNumber);
+                if (firstLine != null) {
+                    reason = "duplicate of line " + firstLine;
+                }
+            }
+            lines.add(new LichessLineDto(lineNumber, placement, username, score, null, reason));
+        });
+        return lines;
+    }
+
+    private static String cell(List<String> cells, int column) {
+        return column >= 0 && column < cells.size() ? cells.get(column).strip() : null;
+    }
+
+    private static Integer parseNumber(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Column of each field, found from the header or the arena export's defaults.
+    private static class Columns {
+        int placement = DEFAULT_PLACEMENT_COLUMN;
+        int username = DEFAULT_USERNAME_COLUMN;
+        int score = DEFAULT_SCORE_COLUMN;
+    }
+}
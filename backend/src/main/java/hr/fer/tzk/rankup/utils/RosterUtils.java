@@ -0,0 +1,132 @@
+package hr.fer.tzk.rankup.utils;
+
+import hr.fer.tzk.rankup.dto.MemberLineDto;
+import hr.fer.tzk.rankup.dto.RosterLineDto;
+import hr.fer.tzk.rankup.dto.RosterReportDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RosterUtils {
+
+    private static final int MAX_RAW_LENGTH = 200;
+    private static final int MAX_NAME_LENGTH = 30;
+    private static final int MAX_EMAIL_LENGTH = 50;
+
+    /**
+     * Reads a roster of JMBAGs from a text or CSV file, one member per line.
+     *
+     * <p>
+     * The file is read with {@link CsvUtils#forEachLine}, so only the current line is held in memory. In every line
+     * the first cell (separated by {@code ,} or {@code ;}) made of 7 to 10 digits is taken as the JMBAG and padded with
+     * leading zeros, since spreadsheets drop them. Blank lines are skipped. Every other line is reported, with the
+     * reason if it was rejected.
+     * </p>
+     *
+     * @param inputStream content of the uploaded file.
+     * @return report with one entry per non-blank line
+     * @throws IOException if the file cannot be read.
+     */
+    public static RosterReportDto parseRoster(InputStream inputStream) throws IOException {
+        List<RosterLineDto> lines = new ArrayList<>();
+        Map<String, Integer> firstLineByJmbag = new HashMap<>();
+
+        CsvUtils.forEachLine(inputStream, (line, lineNumber) -> {
+            String raw = line.length() > MAX_RAW_LENGTH ? line.substring(0, MAX_RAW_LENGTH) : line;
+            String jmbag = findJmbag(line);
+            String reason = null;
+            if (jmbag == null) {
+                reason = "no JMBAG found";
+            } else if (!JmbagUtils.validateJmbag(jmbag)) {
+                reason = "invalid JMBAG";
+            } else {
+                Integer firstLine = firstLineByJmbag.putIfAbsent(jmbag, lineNumber);
+                if (firstLine != null) {
+                    reason = "duplicate of line " + firstLine;
+                }
+            }
+            lines.add(new RosterLineDto(lineNumber, raw, jmbag, reason));
+        });
+        return new RosterReportDto(lines);
+    }
+
+    /**
+     * Reads new members from a CSV file with {@code firstName,lastName,jmbag,email} lines.
+     *
+     * <p>
+     * The file is read the same way as in {@link #parseRoster(InputStream)}. JMBAGs shorter than 10 digits are padded
+     * with leading zeros and the email may be left empty. Lines with a missing name, an invalid JMBAG or email, or a
+     * JMBAG or email repeated from an earlier line are reported with the reason.
+     * </p>
+     *
+     * @param inputStream content of the uploaded file.
+     * @return lines of the file, one per non-blank line
+     * @throws IOException if the file cannot be read.
+     */
+    public static List<MemberLineDto> parseMembers(InputStream inputStream) throws IOException {
+        List<MemberLineDto> lines = new ArrayList<>();
+        Map<String, Integer> firstLineByJmbag = new HashMap<>();
+        Map<String, Integer> firstLineByEmail = new HashMap<>();
+
+        CsvUtils.forEachLine(inputStream, (line, lineNumber) -> {
+            List<String> cells = CsvUtils.parseLine(line);
+            String firstName = cell(cells, 0);
+            String lastName = cell(cells, 1);
+            String jmbag = padJmbag(cell(cells, 2));
+            String email = cell(cells, 3);
+
+            String reason = null;
+            if (firstName == null || lastName == null) {
+                reason = "missing name";
+            } else if (firstName.length() > MAX_NAME_LENGTH || lastName.length() > MAX_NAME_LENGTH) {
+                reason = "name too long";
+            } else if (jmbag == null || !JmbagUtils.validateJmbag(jmbag)) {
+                reason = "invalid JMBAG";
+            } else if (email != null && (email.length() > MAX_EMAIL_LENGTH || !EmailUtils.validateEmail(email))) {
+                reason = "invalid email";
+            } else {
+                Integer firstLine = firstLineByJmbag.putIfAbsent(jmbag, lineNumber);
+                if (firstLine == null && email != null) {
+                    firstLine = firstLineByEmail.putIfAbsent(email, lineNumber);
+                }
+                if (firstLine != null) {
+                    reason = "duplicate of line " + firstLine;
+                }
+            }
+            lines.add(new MemberLineDto(lineNumber, firstName, lastName, jmbag, email, null, reason));
+        });
+        return lines;
+    }
+
+    // Returns the stripped cell, or null if it is missing or blank.
+    private static String cell(List<String> cells, int index) {
+        if (index >= cells.size() || cells.get(index).isBlank()) {
+            return null;
+        }
+        return cells.get(index).strip();
+    }
+
+    private static String padJmbag(String value) {
+        if (value == null || value.length() > 10 || !value.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            return value;
+        }
+        return "0".repeat(10 - value.length()) + value;
+    }
+
+    private static String findJmbag(String line) {
+        for (String cell : line.split("[,;]")) {
+            String value = cell.strip();
+            if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                value = value.substring(1, value.length() - 1).strip();
+            }
+            if (value.length() >= 7 && value.length() <= 10 && value.chars().allMatch(c -> c >= '0' && c <= '9')) {
+                return "0".repeat(10 - value.length()) + value;
+            }
+        }
+        return null;
+    }
+}
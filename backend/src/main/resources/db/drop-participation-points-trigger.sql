@@ -0,0 +1,16 @@
+-- Removes the triggers of participation-points-trigger.sql and the old row trigger, used when
+-- rankup.points.trigger-enabled is false so points are not counted twice.
+
+-- Row trigger that counted points before the application did; databases created before it was removed from
+-- schema.sql still have it.
+DROP TRIGGER IF EXISTS participationChangesTrigger ON Participation
+/
+DROP FUNCTION IF EXISTS handleParticipationChanges()
+/
+
+DROP TRIGGER IF EXISTS participationInsertTrigger ON Participation
+/
+DROP TRIGGER IF EXISTS participationDeleteTrigger ON Participation
+/
+DROP TRIGGER IF EXISTS participationUpdateTrigger ON Participation
+/
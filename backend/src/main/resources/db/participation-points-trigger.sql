@@ -0,0 +1,137 @@
+-- Statement-level triggers that keep SectionMember.pointsAll and SectionSemester.points up to date when
+-- participations are inserted, deleted or moved to another member or event. Installed on startup when
+-- rankup.points.trigger-enabled is true; the application then leaves these point updates to the database.
+--
+-- Every statement fires the trigger once. The changed rows are read from the transition tables, grouped by
+-- member, section and semester, and applied with one update of SectionMember and one upsert of SectionSemester,
+-- so importing 500 participations runs one aggregation instead of 500 row triggers.
+--
+-- Statements are separated by a line with a single slash, since function bodies contain semicolons.
+-- The threshold of new SectionSemester rows is a placeholder, filled in with SectionSemester.DEFAULT_THRESHOLD
+-- by PointsTriggerInitializer when the script is installed.
+
+-- Adds direction * default points of the event type for every (member, event) pair.
+CREATE OR REPLACE FUNCTION addParticipationPoints(idMembers BIGINT[], idEvents BIGINT[], direction INT)
+RETURNS VOID AS $$
+BEGIN
+    IF EXISTS (SELECT 1
+               FROM UNNEST(idEvents) AS p(idEvent)
+               JOIN MyEvent e ON e.idEvent = p.idEvent
+               LEFT JOIN Semester s ON e.dateEvent BETWEEN s.dateFromSemester AND s.dateToSemester
+               WHERE s.idSemester IS NULL) THEN
+        RAISE EXCEPTION 'Event date does not fall within any valid semester';
+    END IF;
+
+    WITH delta AS (
+        SELECT p.idMember, e.idSection, s.idSemester, direction * SUM(et.defaultPoints) AS points
+        FROM UNNEST(idMembers, idEvents) AS p(idMember, idEvent)
+        JOIN MyEvent e ON e.idEvent = p.idEvent
+        JOIN EventType et ON et.idEventType = e.idEventType
+        JOIN Semester s ON e.dateEvent BETWEEN s.dateFromSemester AND s.dateToSemester
+        GROUP BY p.idMember, e.idSection, s.idSemester
+    ), memberPoints AS (
+        UPDATE SectionMember sm
+        SET pointsAll = sm.pointsAll + d.points
+        FROM (SELECT idMember, idSection, SUM(points) AS points FROM delta GROUP BY idMember, idSection) d
+        WHERE sm.idMember = d.idMember AND sm.idSection = d.idSection
+    )
+    INSERT INTO SectionSemester (threshold, points, idSemester, idSection, idMember)
+    SELECT ${defaultThreshold}, points, idSemester, idSection, idMember
+    FROM delta
+    ON CONFLICT (idMember, idSemester, idSection) DO UPDATE
+    SET points = SectionSemester.points + EXCLUDED.points;
+END;
+$$ LANGUAGE plpgsql
+/
+
+CREATE OR REPLACE FUNCTION handleParticipationInserts()
+RETURNS TRIGGER AS $$
+DECLARE
+    idMembers BIGINT[];
+    idEvents BIGINT[];
+BEGIN
+    SELECT ARRAY_AGG(idMember), ARRAY_AGG(idEvent) INTO idMembers, idEvents FROM insertedParticipation;
+    IF idMembers IS NOT NULL THEN
+        PERFORM addParticipationPoints(idMembers, idEvents, 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql
+/
+
+CREATE OR REPLACE FUNCTION handleParticipationDeletes()
+RETURNS TRIGGER AS $$
+DECLARE
+    idMembers BIGINT[];
+    idEvents BIGINT[];
+BEGIN
+    SELECT ARRAY_AGG(idMember), ARRAY_AGG(idEvent) INTO idMembers, idEvents FROM deletedParticipation;
+    IF idMembers IS NOT NULL THEN
+        PERFORM addParticipationPoints(idMembers, idEvents, -1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql
+/
+
+-- Only rows moved to another member or event change points; changes of addPoints are not counted.
+CREATE OR REPLACE FUNCTION handleParticipationUpdates()
+RETURNS TRIGGER AS $$
+DECLARE
+    idMembers BIGINT[];
+    idEvents BIGINT[];
+BEGIN
+    SELECT ARRAY_AGG(o.idMember), ARRAY_AGG(o.idEvent) INTO idMembers, idEvents
+    FROM oldParticipation o
+    JOIN newParticipation n ON n.idParticipation = o.idParticipation
+    WHERE (n.idMember, n.idEvent) IS DISTINCT FROM (o.idMember, o.idEvent);
+    IF idMembers IS NULL THEN
+        RETURN NULL;
+    END IF;
+    PERFORM addParticipationPoints(idMembers, idEvents, -1);
+
+    SELECT ARRAY_AGG(n.idMember), ARRAY_AGG(n.idEvent) INTO idMembers, idEvents
+    FROM oldParticipation o
+    JOIN newParticipation n ON n.idParticipation = o.idParticipation
+    WHERE (n.idMember, n.idEvent) IS DISTINCT FROM (o.idMember, o.idEvent);
+    PERFORM addParticipationPoints(idMembers, idEvents, 1);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql
+/
+
+-- Row trigger that counted points before the application did; databases created before it was removed from
+-- schema.sql still have it.
+DROP TRIGGER IF EXISTS participationChangesTrigger ON Participation
+/
+DROP FUNCTION IF EXISTS handleParticipationChanges()
+/
+
+DROP TRIGGER IF EXISTS participationInsertTrigger ON Participation
+/
+DROP TRIGGER IF EXISTS participationDeleteTrigger ON Participation
+/
+DROP TRIGGER IF EXISTS participationUpdateTrigger ON Participation
+/
+
+-- Transition tables are only allowed on triggers for a single event, hence three triggers.
+CREATE TRIGGER participationInsertTrigger
+AFTER INSERT ON Participation
+REFERENCING NEW TABLE AS insertedParticipation
+FOR EACH STATEMENT
+EXECUTE FUNCTION handleParticipationInserts()
+/
+
+CREATE TRIGGER participationDeleteTrigger
+AFTER DELETE ON Participation
+REFERENCING OLD TABLE AS deletedParticipation
+FOR EACH STATEMENT
+EXECUTE FUNCTION handleParticipationDeletes()
+/
+
+CREATE TRIGGER participationUpdateTrigger
+AFTER UPDATE ON Participation
+REFERENCING OLD TABLE AS oldParticipation NEW TABLE AS newParticipation
+FOR EACH STATEMENT
+EXECUTE FUNCTION handleParticipationUpdates()
+/
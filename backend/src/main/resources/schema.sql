@@ -12,6 +12,8 @@ DROP TABLE IF EXISTS News CASCADE;
 DROP TABLE IF EXISTS SectionMember CASCADE;
 DROP TABLE IF EXISTS MemberInfo CASCADE;
 DROP TABLE IF EXISTS Review CASCADE;
+DROP TABLE IF EXISTS ScoreboardSnapshot CASCADE;
+DROP FUNCTION IF EXISTS handleParticipationChanges() CASCADE;
 
 CREATE TABLE MyMember
 (
@@ -163,6 +165,9 @@ CREATE TABLE MyEvent
     FOREIGN KEY (idEventType) REFERENCES EventType(idEventType) ON DELETE CASCADE
 );
 
+-- Points of a section in a semester are summed over events found by section and date.
+CREATE INDEX idxEventSectionDate ON MyEvent (idSection, dateEvent);
+
 -- Event date must be between [dateFromSemester, dateToSemester] of some semester.
 -- If that is not the case then Event is invalid and we return error.
 CREATE OR REPLACE FUNCTION validateEventDate()
@@ -190,6 +195,7 @@ CREATE TABLE SectionSemester
     idSectionSemester BIGSERIAL PRIMARY KEY,
     threshold INT NOT NULL,
     points INT NOT NULL DEFAULT 0,
+    peEnrolled BOOLEAN NOT NULL DEFAULT FALSE,
     idSemester BIGINT NOT NULL,
     idSection BIGINT NOT NULL,
     idMember BIGINT NOT NULL,
@@ -199,10 +205,15 @@ CREATE TABLE SectionSemester
     UNIQUE (idMember, idSemester, idSection)
 );
 
+-- Scoreboards read all members of a section in given semesters.
+CREATE INDEX idxSectionSemesterSection ON SectionSemester (idSection, idSemester);
+
 CREATE TABLE Participation
 (
     idParticipation BIGSERIAL PRIMARY KEY,
     addPoints INT NOT NULL DEFAULT 0,
+    placement INT,
+    score INT,
     idMember BIGINT NOT NULL,
     idEvent BIGINT NOT NULL,
     FOREIGN KEY (idMember) REFERENCES MyMember(idMember) ON DELETE CASCADE,
@@ -210,101 +221,10 @@ CREATE TABLE Participation
     UNIQUE(idMember, idEvent)
 );
 
-CREATE OR REPLACE FUNCTION handleParticipationChanges()
-RETURNS TRIGGER AS $$
-DECLARE
-    default_points INT;
-    event_date DATE;
-    semester_id BIGINT;
-    section_id BIGINT;
-    points_diff INT;
-BEGIN
-    -- Determine the action: INSERT, UPDATE, or DELETE.
-    IF (TG_OP = 'DELETE') THEN
-        -- Fetch default points from EventType for the event.
-        SELECT defaultPoints INTO default_points
-        FROM EventType
-        WHERE idEventType = (SELECT idEventType FROM MyEvent WHERE idEvent = OLD.idEvent);
-
-        -- Fetch event date and section.
-        SELECT dateEvent, idSection INTO event_date, section_id
-        FROM MyEvent
-        WHERE idEvent = OLD.idEvent;
-
-        -- Find the corresponding semester.
-        SELECT idSemester INTO semester_id
-        FROM Semester
-        WHERE event_date BETWEEN dateFromSemester AND dateToSemester;
-
-        -- Update points in SectionSemester.
-        UPDATE SectionSemester
-        SET points = points - (OLD.addPoints + default_points)
-        WHERE idMember = OLD.idMember AND idSemester = semester_id AND idSection = section_id;
-
-        -- Update pointsAll in SectionMember.
-        UPDATE SectionMember
-        SET pointsAll = pointsAll - (OLD.addPoints + default_points)
-        WHERE idMember = OLD.idMember AND idSection = section_id;
-
-    ELSE
-        -- Fetch default points from EventType for the event.
-        SELECT defaultPoints INTO default_points
-        FROM EventType
-        WHERE idEventType = (SELECT idEventType FROM MyEvent WHERE idEvent = NEW.idEvent);
-
-        -- Fetch event date and section.
-        SELECT dateEvent, idSection INTO event_date, section_id
-        FROM MyEvent
-        WHERE idEvent = NEW.idEvent;
-
-        -- Find the corresponding semester.
-        SELECT idSemester INTO semester_id
-        FROM Semester
-        WHERE event_date BETWEEN dateFromSemester AND dateToSemester;
-
-        IF semester_id IS NULL THEN
-            RAISE EXCEPTION 'Event date does not fall within any valid semester';
-        END IF;
-
-        IF (TG_OP = 'INSERT') THEN
-            points_diff = NEW.addPoints + default_points;
-
-            -- Insert or update SectionSemester.
-            INSERT INTO SectionSemester (threshold, points, idSemester, idSection, idMember)
-            VALUES (0, points_diff, semester_id, section_id, NEW.idMember)
-            ON CONFLICT (idMember, idSemester, idSection) DO UPDATE
-            SET points = SectionSemester.points + EXCLUDED.points;
-
-            -- Update pointsAll in SectionMember.
-            UPDATE SectionMember
-            SET pointsAll = pointsAll + points_diff
-            WHERE idMember = NEW.idMember AND idSection = section_id;
-
-        ELSIF (TG_OP = 'UPDATE') THEN
-            -- Calculate the difference in points for the update.
-            points_diff = (NEW.addPoints + default_points) - (OLD.addPoints + default_points);
-
-            -- Update SectionSemester.
-            UPDATE SectionSemester
-            SET points = points + points_diff
-            WHERE idMember = NEW.idMember AND idSemester = semester_id AND idSection = section_id;
-
-            -- Update pointsAll in SectionMember.
-            UPDATE SectionMember
-            SET pointsAll = pointsAll + points_diff
-            WHERE idMember = NEW.idMember AND idSection = section_id;
-        END IF;
-    END IF;
-
-    RETURN NEW;
-END;
-$$ LANGUAGE plpgsql;
-
--- Trigger to handle participation changes.
-CREATE TRIGGER participationChangesTrigger
-AFTER INSERT OR UPDATE OR DELETE ON Participation
-FOR EACH ROW
-EXECUTE FUNCTION handleParticipationChanges();
+-- Points of SectionMember and SectionSemester are kept up to date by the application with atomic
+-- "points = points + delta" updates, in the same transaction as the participation change.
+-- With rankup.points.trigger-enabled=true the statement-level triggers of db/participation-points-trigger.sql
+-- are installed on startup instead, and the application stops applying participation points itself.
 
 
 CREATE TABLE MyAttribute
@@ -342,6 +262,19 @@ CREATE TABLE SectionMember
     UNIQUE (idMember, idSection)
 );
 
+-- Daily snapshots of the total scoreboard, downsampled to weekly by the application.
+-- No foreign keys, snapshots are history and outlive removed members.
+CREATE TABLE ScoreboardSnapshot
+(
+    idScoreboardSnapshot BIGSERIAL PRIMARY KEY,
+    idSection BIGINT NOT NULL,
+    idMember BIGINT NOT NULL,
+    snapshotDate DATE NOT NULL,
+    points INT NOT NULL,
+    position INT NOT NULL,
+    UNIQUE (idSection, snapshotDate, idMember)
+);
+
 CREATE TABLE MemberInfo
 (
     idInfo BIGSERIAL PRIMARY KEY,
@@ -356,6 +289,9 @@ CREATE TABLE MemberInfo
     UNIQUE (idSection, idMember, idAttribute)
 );
 
+-- Imports find members by attribute value, e.g. Lichess username, ignoring case.
+CREATE INDEX idxMemberInfoValue ON MemberInfo (idAttribute, LOWER(stringValue));
+
 -- Insert default event type
 INSERT INTO EventType (nameEventType, defaultPoints) VALUES ('Ostalo', 1);
 
@@ -0,0 +1,76 @@
+package hr.fer.tzk.rankup;
+
+import hr.fer.tzk.rankup.model.SectionSemester;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts test rows with plain JDBC, so the rows are committed and visible to every thread of the test.
+ * The H2 test schema has no triggers, so ranks and section semesters are inserted explicitly.
+ */
+public class TestData {
+    private final JdbcTemplate jdbcTemplate;
+
+    public TestData(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Returns the ID of the semester with the given name, inserting it if it does not exist yet.
+     */
+    public Long semester(String name, LocalDate dateFrom, LocalDate dateTo) {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT idsemester FROM semester WHERE namesemester = ?", Long.class, name);
+        if (!ids.isEmpty()) {
+            return ids.get(0);
+        }
+        return insert("semester", "idsemester", Map.of("namesemester", name, "datefromsemester", dateFrom, "datetosemester", dateTo));
+    }
+
+    public Long section(String name) {
+        return insert("mysection", "idsection", Map.of("namesection", name, "isopen", true));
+    }
+
+    public Long eventType(String name, int defaultPoints) {
+        return insert("eventtype", "ideventtype", Map.of("nameeventtype", name, "defaultpoints", defaultPoints));
+    }
+
+    public Long event(Long idSection, Long idEventType, String name, LocalDate date) {
+        return insert("myevent", "idevent", Map.of("nameevent", name, "dateevent", date, "idsection", idSection, "ideventtype", idEventType));
+    }
+
+    /**
+     * Adds {@code count} new members with zero points to the section and to each of the given semesters.
+     *
+     * @return IDs of the new members
+     */
+    public List<Long> members(Long idSection, int count, List<Long> idSemesters) {
+        Long idRank = insert("myrank", "idrank", Map.of("namerank", "Pijun", "pointsmodifier", 0, "idsection", idSection));
+        List<Long> idMembers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Long idMember = insert("mymember", "idmember", Map.of("firstname", "Member", "lastname", String.valueOf(i),
+                    "jmbag", String.format("%05d%05d", idSection, i), "isverified", true));
+            jdbcTemplate.update("INSERT INTO sectionmember (isactive, pointsall, idmember, idsection, idrank) VALUES (TRUE, 0, ?, ?, ?)",
+                    idMember, idSection, idRank);
+            for (Long idSemester : idSemesters) {
+                jdbcTemplate.update("INSERT INTO sectionsemester (threshold, points, peenrolled, idsemester, idsection, idmember) " +
+                        "VALUES (?, 0, FALSE, ?, ?, ?)", SectionSemester.DEFAULT_THRESHOLD, idSemester, idSection, idMember);
+            }
+            idMembers.add(idMember);
+        }
+        return idMembers;
+    }
+
+    private Long insert(String table, String idColumn, Map<String, Object> values) {
+        return new SimpleJdbcInsert(jdbcTemplate)
+                .withTableName(table)
+                .usingColumns(values.keySet().toArray(String[]::new))
+                .usingGeneratedKeyColumns(idColumn)
+                .executeAndReturnKey(values)
+                .longValue();
+    }
+}
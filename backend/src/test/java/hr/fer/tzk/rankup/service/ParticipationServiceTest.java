@@ -0,0 +1,118 @@
+package hr.fer.tzk.rankup.service;
+
+import hr.fer.tzk.rankup.TestData;
+import hr.fer.tzk.rankup.form.SingleParticipationForm;
+import hr.fer.tzk.rankup.model.Participation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Records and removes attendance of the same members from many threads at once and checks that stored points
+ * still match the points computed from participations, so no update was lost or applied twice.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class ParticipationServiceTest {
+    private static final int THREADS = 8;
+    private static final int EVENTS_PER_THREAD = 6;
+    private static final int MEMBERS = 5;
+    private static final int POINTS = 2;
+
+    @Autowired
+    private ParticipationService participationService;
+
+    @Autowired
+    private SectionMemberService sectionMemberService;
+
+    @Autowired
+    private SectionSemesterService sectionSemesterService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestData testData;
+
+    @BeforeEach
+    void setUp() {
+        testData = new TestData(jdbcTemplate);
+    }
+
+    @Test
+    void concurrentChangesKeepPointsInSync() throws Exception {
+        List<Long> idSemesters = List.of(
+                testData.semester("23/24 ZS", LocalDate.of(2023, 10, 1), LocalDate.of(2024, 2, 1)),
+                testData.semester("23/24 LJS", LocalDate.of(2024, 2, 20), LocalDate.of(2024, 7, 1)));
+        LocalDate[] dates = {LocalDate.of(2023, 11, 11), LocalDate.of(2024, 4, 1)};
+
+        Long idSection = testData.section("Stress");
+        Long idEventType = testData.eventType("Stress", POINTS);
+        List<Long> idMembers = testData.members(idSection, MEMBERS, idSemesters);
+        List<List<Long>> idEventsByThread = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            List<Long> idEvents = new ArrayList<>();
+            for (int i = 0; i < EVENTS_PER_THREAD; i++) {
+                idEvents.add(testData.event(idSection, idEventType, "Stress " + thread + "-" + i, dates[i % dates.length]));
+            }
+            idEventsByThread.add(idEvents);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (List<Long> idEvents : idEventsByThread) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < idEvents.size(); i++) {
+                    Long idEvent = idEvents.get(i);
+                    if (i % 2 == 0) {
+                        participationService.createParticipations(idSection, idEvent, idMembers, (idMember, reason) -> {
+                            throw new AssertionError(reason);
+                        });
+                    } else {
+                        for (Long idMember : idMembers) {
+                            participationService.createParticipation(idSection, new SingleParticipationForm(idMember, idEvent));
+                        }
+                    }
+                    // Remove attendance of every other member again.
+                    List<Participation> participations = participationService.findAllParticipationsByEventId(idEvent);
+                    for (int j = 0; j < participations.size(); j += 2) {
+                        participationService.deleteParticipationById(idSection, participations.get(j).getIdParticipation());
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertTrue(sectionMemberService.findPointsDrift(idSection).isEmpty());
+        assertTrue(sectionSemesterService.findPointsDrift(idSection, idSemesters).isEmpty());
+
+        int expected = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM participation p JOIN myevent e ON e.idevent = p.idevent " +
+                "WHERE e.idsection = ?", Integer.class, idSection) * POINTS;
+        int stored = jdbcTemplate.queryForObject("SELECT SUM(pointsall) FROM sectionmember WHERE idsection = ?", Integer.class, idSection);
+        int storedBySemester = jdbcTemplate.queryForObject("SELECT SUM(points) FROM sectionsemester WHERE idsection = ?", Integer.class, idSection);
+        assertEquals(THREADS * EVENTS_PER_THREAD * (MEMBERS / 2) * POINTS, expected);
+        assertEquals(expected, stored);
+        assertEquals(expected, storedBySemester);
+    }
+}
@@ -0,0 +1,75 @@
+package hr.fer.tzk.rankup.service;
+
+import hr.fer.tzk.rankup.TestData;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that a scoreboard view is read with a fixed number of statements, no matter how many members the
+ * section has. Lazy loading of members per row would show up as one extra statement per member.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class ScoreboardServiceTest {
+    @Autowired
+    private ScoreboardService scoreboardService;
+
+    @Autowired
+    private ScoreboardIndexService scoreboardIndexService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TestData testData;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        testData = new TestData(jdbcTemplate);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void statementCountDoesNotDependOnSectionSize() {
+        List<Long> idSemesters = List.of(
+                testData.semester("23/24 ZS", LocalDate.of(2023, 10, 1), LocalDate.of(2024, 2, 1)),
+                testData.semester("23/24 LJS", LocalDate.of(2024, 2, 20), LocalDate.of(2024, 7, 1)));
+
+        for (int size : new int[]{5, 500}) {
+            Long idSection = testData.section("Scoreboard " + size);
+            testData.members(idSection, size, idSemesters);
+            scoreboardIndexService.invalidateAll();
+
+            // Ranking and snapshot dates of the section.
+            assertEquals(2, countStatements(() -> scoreboardService.getPointsTotal(idSection).size(), size));
+            // Semester list and the latest semester's ranking.
+            assertEquals(2, countStatements(() -> scoreboardService.getPointsSemester(idSection).size(), size));
+            // Rankings of both semesters of the academic year, the semester list is already loaded.
+            assertEquals(2, countStatements(() -> scoreboardService.getPointsYear(idSection).size(), size));
+            // Served from the ranking index.
+            assertEquals(0, countStatements(() -> scoreboardService.getPointsTotal(idSection).size(), size));
+        }
+    }
+
+    private long countStatements(Supplier<Integer> request, int expectedRows) {
+        statistics.clear();
+        assertEquals(expectedRows, request.get());
+        return statistics.getPrepareStatementCount();
+    }
+}